@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Iterates over a list in chunks whose size adapts to the measured processing time, so every chunk takes about the same target duration.
+ * <p>
+ * The processing time of a chunk is the time between handing it out and the request for the next chunk. From that the time per item is estimated, and the
+ * next chunk is sized to match the target duration. To avoid oscillation the size changes by at most a factor of 2 per chunk, and always stays within the
+ * given bounds. This suits long-running jobs whose cost per item drifts over time.
+ * <p>
+ * Chunks are {@link List#subList(int, int) subList} views of the source, like with {@link Partition#view(List, int)}. Not thread-safe.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   Partition.adaptive(myHugeDataSet, 100, 500, ChronoUnit.MILLIS).forEachRemaining(chunk -> {
+ *     myDB.insertBatch(chunk);
+ *     updateUI(chunk.size());
+ *   });
+ * }
+ * </pre>
+ *
+ * @param <T> any
+ * @see Partition#adaptive(List, int, long, java.time.temporal.TemporalUnit)
+ */
+public final class AdaptivePartition<T> implements Iterator<List<T>> {
+
+	private final List<T> list;
+	private final int minChunkSize;
+	private final int maxChunkSize;
+	private final long targetNanos;
+	private int chunkSize;
+	private int position = 0;
+	private int lastChunkSize = 0;
+	private long lastHandout;
+
+	AdaptivePartition(final List<T> list, final int initialChunkSize, final int minChunkSize, final int maxChunkSize, final long targetNanos) {
+		if ((minChunkSize <= 0) || (maxChunkSize < minChunkSize)) {
+			throw new IllegalArgumentException("Chunk size bounds must be > 0 and min <= max");
+		}
+		this.list = (list instanceof RandomAccess) ? list : new ArrayList<>(list);
+		this.minChunkSize = minChunkSize;
+		this.maxChunkSize = maxChunkSize;
+		this.targetNanos = targetNanos;
+		this.chunkSize = clamp(initialChunkSize, minChunkSize, maxChunkSize);
+	}
+
+	static int clamp(final long value, final int min, final int max) {
+		return (int) Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * Adjusts the chunk size based on the processing time of the previous chunk.
+	 */
+	void adapt(final long elapsedNanos) {
+		final long ideal = (elapsedNanos > 0) ? (long) ((double) lastChunkSize * targetNanos / elapsedNanos) : 2L * chunkSize;
+		final int damped = clamp(ideal, Math.max(1, chunkSize / 2), (int) Math.min(Integer.MAX_VALUE, 2L * chunkSize));
+		chunkSize = clamp(damped, minChunkSize, maxChunkSize);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return position < list.size();
+	}
+
+	@Override
+	public List<T> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final long now = System.nanoTime();
+		if (lastChunkSize > 0) {
+			adapt(now - lastHandout);
+		}
+		final int start = position;
+		position = (int) Math.min(list.size(), (long) start + chunkSize);
+		lastChunkSize = position - start;
+		lastHandout = now;
+		return list.subList(start, position);
+	}
+
+	/**
+	 * Returns the size the next chunk will have at most, based on the measurements so far.
+	 *
+	 * @return the current chunk size.
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Separates a primitive array into smaller chunks without boxing or copying any data.
+ * <p>
+ * Every chunk is a buffer view of a range of the source array, so changes to the array are visible in the chunks and vice versa. Alternatively chunks can
+ * be processed as plain (offset, length) ranges of the array, which does not allocate anything at all.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   ArrayPartition<LongBuffer> ids = ArrayPartition.of(myHugeIdArray, 10_000);
+ *   for (LongBuffer chunk : ids) {
+ *     myDB.deleteAll(chunk);
+ *   }
+ *   // or in parallel without any allocation per chunk:
+ *   ids.parallelForEachRange(executor, threads, (offset, length) -> process(myHugeIdArray, offset, length));
+ * }
+ * </pre>
+ *
+ * @param <B> the buffer type of the chunks.
+ */
+public final class ArrayPartition<B extends Buffer> extends AbstractList<B> {
+
+	/**
+	 * Receives the range of a chunk within the source array.
+	 */
+	@FunctionalInterface
+	public interface RangeConsumer {
+
+		void accept(int offset, int length);
+	}
+
+	/**
+	 * Creates a buffer view of a range within the source array.
+	 */
+	@FunctionalInterface
+	interface Slicer<B> {
+
+		B slice(int offset, int length);
+	}
+
+	/**
+	 * Creates a partitioned view of a given int array with a given chunk size.
+	 *
+	 * @param array the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a partitioned view of the source data.
+	 */
+	public static ArrayPartition<IntBuffer> of(final int[] array, final int chunkSize) {
+		return new ArrayPartition<>(array.length, chunkSize, (offset, length) -> IntBuffer.wrap(array, offset, length).slice());
+	}
+
+	/**
+	 * Creates a partitioned view of a given long array with a given chunk size.
+	 *
+	 * @param array the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a partitioned view of the source data.
+	 */
+	public static ArrayPartition<LongBuffer> of(final long[] array, final int chunkSize) {
+		return new ArrayPartition<>(array.length, chunkSize, (offset, length) -> LongBuffer.wrap(array, offset, length).slice());
+	}
+
+	/**
+	 * Creates a partitioned view of a given double array with a given chunk size.
+	 *
+	 * @param array the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a partitioned view of the source data.
+	 */
+	public static ArrayPartition<DoubleBuffer> of(final double[] array, final int chunkSize) {
+		return new ArrayPartition<>(array.length, chunkSize, (offset, length) -> DoubleBuffer.wrap(array, offset, length).slice());
+	}
+
+	private final int arrayLength;
+	private final int chunkSize;
+	private final Slicer<B> slicer;
+
+	private ArrayPartition(final int arrayLength, final int chunkSize, final Slicer<B> slicer) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be > 0");
+		}
+		this.arrayLength = arrayLength;
+		this.chunkSize = chunkSize;
+		this.slicer = slicer;
+	}
+
+	void checkIndex(final int index) {
+		if ((index < 0) || (index >= size())) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of the partition's range <0," + (size() - 1) + ">");
+		}
+	}
+
+	/**
+	 * Returns the offset of a chunk within the source array.
+	 *
+	 * @param index the chunk index.
+	 * @return the offset of the first item of the chunk.
+	 */
+	public int offset(final int index) {
+		checkIndex(index);
+		return index * chunkSize;
+	}
+
+	/**
+	 * Returns the amount of items in a chunk.
+	 *
+	 * @param index the chunk index.
+	 * @return the amount of items in the chunk.
+	 */
+	public int length(final int index) {
+		checkIndex(index);
+		return Math.min(chunkSize, arrayLength - index * chunkSize);
+	}
+
+	/**
+	 * Returns a chunk of the partitioned content with the given index.
+	 *
+	 * @param index the chunk index of the underlying data.
+	 * @return a buffer view of all elements in the requested chunk, with position 0 being the first element of the chunk.
+	 */
+	@Override
+	public B get(final int index) {
+		return slicer.slice(offset(index), length(index));
+	}
+
+	@Override
+	public int size() {
+		return (arrayLength / chunkSize) + ((arrayLength % chunkSize == 0) ? 0 : 1);
+	}
+
+	/**
+	 * Passes the range of every chunk to the given consumer, without allocating anything.
+	 *
+	 * @param action the action to perform for each chunk range.
+	 */
+	public void forEachRange(final RangeConsumer action) {
+		for (int offset = 0; offset < arrayLength; offset += chunkSize) {
+			action.accept(offset, Math.min(chunkSize, arrayLength - offset));
+		}
+	}
+
+	/**
+	 * Processes all chunks in parallel on the given executor.
+	 *
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time, usually the amount of workers of the executor.
+	 * @param action the action to perform for each chunk.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the action threw an exception for any chunk.
+	 * @see Partition#parallelForEach(Executor, int, Consumer)
+	 */
+	public void parallelForEach(final Executor executor, final int maxInFlight, final Consumer<? super B> action)
+					throws InterruptedException, ExecutionException {
+		ParallelChunks.map(size(), this::get, executor, maxInFlight, chunk -> {
+			action.accept(chunk);
+			return null;
+		}, false);
+	}
+
+	/**
+	 * Processes the ranges of all chunks in parallel on the given executor, without creating any buffer views.
+	 *
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time, usually the amount of workers of the executor.
+	 * @param action the action to perform for each chunk range.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the action threw an exception for any chunk.
+	 * @see Partition#parallelForEach(Executor, int, Consumer)
+	 */
+	public void parallelForEachRange(final Executor executor, final int maxInFlight, final RangeConsumer action)
+					throws InterruptedException, ExecutionException {
+		ParallelChunks.map(size(), index -> index, executor, maxInFlight, index -> {
+			action.accept(offset(index), length(index));
+			return null;
+		}, false);
+	}
+
+	/**
+	 * Maps all chunks in parallel on the given executor, and returns the results in chunk order.
+	 *
+	 * @param <R> any
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time, usually the amount of workers of the executor.
+	 * @param mapper the function to apply to each chunk.
+	 * @return the results of all chunks, in chunk order.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the mapper threw an exception for any chunk.
+	 * @see Partition#parallelForEach(Executor, int, Consumer)
+	 */
+	public <R> List<R> parallelMap(final Executor executor, final int maxInFlight, final Function<? super B, ? extends R> mapper)
+					throws InterruptedException, ExecutionException {
+		return ParallelChunks.map(size(), this::get, executor, maxInFlight, mapper, true);
+	}
+
+	/**
+	 * Creates a spliterator that splits on chunk boundaries, see {@link Partition#spliterator()}.
+	 *
+	 * @return a spliterator over all chunks.
+	 */
+	@Override
+	public Spliterator<B> spliterator() {
+		return new Partition.RangeSpliterator<>(this::get, 0, size());
+	}
+}
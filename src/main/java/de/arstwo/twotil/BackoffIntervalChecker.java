@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link IntervalChecker} with exponential backoff, typically used to retry calls to a failing dependency.
+ * <p>
+ * Every reported failure grows the interval up to a maximum, a reported success resets it to the minimum. The growth uses decorrelated jitter: the next
+ * interval is a random value between the minimum and three times the previous interval. Retries of many nodes against the same recovering backend are
+ * therefore spread out instead of arriving in synchronized waves.
+ * <p>
+ * All operations are lock-free, time is measured with {@link System#nanoTime()}.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   BackoffIntervalChecker retry = BackoffIntervalChecker.between(100, 30_000, ChronoUnit.MILLIS);
+ *   if (retry.updateIfDue()) {
+ *     try {
+ *       backend.call();
+ *       retry.reportSuccess();
+ *     } catch (IOException e) {
+ *       retry.reportFailure();
+ *     }
+ *   }
+ *   // alternatively, reports failure if the task throws:
+ *   retry.executeIfDue(backend::call);
+ * }
+ * </pre>
+ */
+public final class BackoffIntervalChecker {
+
+	/**
+	 * Creates a new BackoffIntervalChecker that waits between the given minimum and maximum interval. The returned timer is marked as "due".
+	 *
+	 * @param minAmount The amount of the specified unit without any failures.
+	 * @param maxAmount The maximum amount of the specified unit after repeated failures.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return A BackoffIntervalChecker with the specified limits.
+	 */
+	public static BackoffIntervalChecker between(final long minAmount, final long maxAmount, final TemporalUnit unit) {
+		if (maxAmount < minAmount) {
+			throw new IllegalArgumentException("Maximum interval must be >= minimum interval");
+		}
+		return new BackoffIntervalChecker(IntervalChecker.toDuration(minAmount, unit).toNanos(), IntervalChecker.toDuration(maxAmount, unit).toNanos());
+	}
+
+	final long minInterval;
+	final long maxInterval;
+	final AtomicLong interval;
+	final AtomicLong deadline = new AtomicLong(IntervalChecker.FORCED_DUE);
+
+	private BackoffIntervalChecker(final long minInterval, final long maxInterval) {
+		this.minInterval = minInterval;
+		this.maxInterval = maxInterval;
+		this.interval = new AtomicLong(minInterval);
+	}
+
+	long nextInterval(final long previousInterval) {
+		final long upperBound = (previousInterval > maxInterval / 3) ? maxInterval : Math.min(maxInterval, previousInterval * 3);
+		return (upperBound > minInterval) ? ThreadLocalRandom.current().nextLong(minInterval, upperBound + 1) : minInterval;
+	}
+
+	/**
+	 * Checks the interval and atomically resets the timer if the time has expired.
+	 *
+	 * @return true if the time had expired, otherwise false.
+	 */
+	public boolean updateIfDue() {
+		final long now = System.nanoTime();
+		long checkDeadline;
+
+		do {
+			checkDeadline = deadline.get();
+			if ((checkDeadline != IntervalChecker.FORCED_DUE) && (now - checkDeadline <= 0)) {
+				return false;
+			}
+		} while (!deadline.compareAndSet(checkDeadline, now + interval.get()));
+
+		return true;
+	}
+
+	/**
+	 * Executes the specified operation if the interval has expired. In that case, also resets the timer.
+	 * <p>
+	 * If the task completes normally a success is reported, if it throws an exception a failure is reported and the exception is rethrown.
+	 *
+	 * @param task The task to be performed.
+	 * @return true if the interval had expired, otherwise false.
+	 */
+	public boolean executeIfDue(final Runnable task) {
+		if (updateIfDue()) {
+			try {
+				task.run();
+			} catch (RuntimeException | Error e) {
+				reportFailure();
+				throw e;
+			}
+			reportSuccess();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Reports a failed attempt. Grows the interval and restarts the timer with it.
+	 */
+	public void reportFailure() {
+		long previous;
+		long next;
+
+		do {
+			previous = interval.get();
+			next = nextInterval(previous);
+		} while (!interval.compareAndSet(previous, next));
+
+		deadline.set(System.nanoTime() + next);
+	}
+
+	/**
+	 * Reports a successful attempt. Resets the interval to the minimum and restarts the timer with it.
+	 */
+	public void reportSuccess() {
+		interval.set(minInterval);
+		deadline.set(System.nanoTime() + minInterval);
+	}
+
+	/**
+	 * Returns the interval that is currently used.
+	 *
+	 * @return the current interval.
+	 */
+	public Duration getInterval() {
+		return Duration.ofNanos(interval.get());
+	}
+
+	/**
+	 * Forces the timer to indicate that the interval time has expired at the next check. The current interval is not changed.
+	 */
+	public void forceDue() {
+		this.deadline.set(IntervalChecker.FORCED_DUE);
+	}
+}
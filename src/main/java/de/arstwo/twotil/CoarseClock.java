@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A {@link Clock} that returns a cached wall-clock time, which is updated by a single background thread every millisecond.
+ * <p>
+ * Reading the time is a single volatile read, so a huge number of time checks per second share the cost of one actual time query. The precision is
+ * therefore only about a millisecond, which is sufficient for most interval checks, timeouts and similar.
+ * <p>
+ * The ticker thread is a daemon thread, that is started on first use and shared by all instances.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   IntervalChecker everySecond = IntervalChecker.every(1, ChronoUnit.SECONDS, CoarseClock.systemUTC());
+ * }
+ * </pre>
+ */
+public final class CoarseClock extends Clock {
+
+	private static final LazyInit<Ticker> TICKER = new LazyInit<>(Ticker::start);
+
+	/**
+	 * Returns a coarse clock using the UTC time-zone.
+	 *
+	 * @return a coarse clock using the UTC time-zone.
+	 */
+	public static CoarseClock systemUTC() {
+		return new CoarseClock(TICKER.get(), ZoneOffset.UTC);
+	}
+
+	/**
+	 * Returns a coarse clock using the system default time-zone.
+	 *
+	 * @return a coarse clock using the system default time-zone.
+	 */
+	public static CoarseClock systemDefaultZone() {
+		return new CoarseClock(TICKER.get(), ZoneId.systemDefault());
+	}
+
+	final Ticker ticker;
+	final ZoneId zone;
+
+	private CoarseClock(final Ticker ticker, final ZoneId zone) {
+		this.ticker = ticker;
+		this.zone = zone;
+	}
+
+	@Override
+	public long millis() {
+		return ticker.currentMillis;
+	}
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis());
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	@Override
+	public Clock withZone(final ZoneId zone) {
+		return zone.equals(this.zone) ? this : new CoarseClock(ticker, zone);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		return (obj instanceof CoarseClock) && zone.equals(((CoarseClock) obj).zone);
+	}
+
+	@Override
+	public int hashCode() {
+		return zone.hashCode() + 1;
+	}
+
+	@Override
+	public String toString() {
+		return "CoarseClock[" + zone + "]";
+	}
+
+	/**
+	 * The background thread that keeps the cached time up to date.
+	 */
+	static final class Ticker implements Runnable {
+
+		static Ticker start() {
+			final Ticker result = new Ticker();
+			final Thread thread = new Thread(result, "CoarseClock-Ticker");
+			thread.setDaemon(true);
+			thread.start();
+			return result;
+		}
+
+		volatile long currentMillis = System.currentTimeMillis();
+
+		private Ticker() {
+		}
+
+		@Override
+		public void run() {
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					return;
+				}
+				currentMillis = System.currentTimeMillis();
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronously executes a task on request, coalescing requests that arrive while the task is pending or running.
+ * <p>
+ * Unlike {@link IntervalChecker#executeIfDue(Runnable)}, requests that arrive too early are not dropped. The first request executes the task immediately
+ * (leading edge), all requests that arrive while the task is running or waiting are coalesced into a single follow-up execution (trailing edge). So every
+ * change is processed by a run that starts after it, while at most one run is in flight at any time.
+ * <p>
+ * Optionally an interval can be set, then consecutive runs start at least that interval apart.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   Debouncer rebuild = Debouncer.every(1, ChronoUnit.SECONDS, scheduler, index::rebuild);
+ *   // on every change:
+ *   rebuild.trigger();
+ * }
+ * </pre>
+ */
+public final class Debouncer {
+
+	private static final int IDLE = 0;
+	private static final int SCHEDULED = 1;
+	private static final int RUNNING = 2;
+	private static final int RUNNING_DIRTY = 3;
+
+	/**
+	 * Creates a new Debouncer that runs the task on the given executor whenever requested, but never more than once at the same time.
+	 *
+	 * @param executor the executor to run the task on.
+	 * @param task the task to execute.
+	 * @return a Debouncer for the given task.
+	 */
+	public static Debouncer coalescing(final Executor executor, final Runnable task) {
+		return new Debouncer(executor, null, 0, task);
+	}
+
+	/**
+	 * Creates a new Debouncer that runs the task on the given executor whenever requested, but never more than once at the same time, and never more often
+	 * than once per interval.
+	 *
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @param executor the executor to run and schedule the task on.
+	 * @param task the task to execute.
+	 * @return a Debouncer for the given task.
+	 */
+	public static Debouncer every(final long amount, final TemporalUnit unit, final ScheduledExecutorService executor, final Runnable task) {
+		return new Debouncer(executor, executor, IntervalChecker.toDuration(amount, unit).toNanos(), task);
+	}
+
+	final Executor executor;
+	final ScheduledExecutorService scheduler;
+	final long interval;
+	final Runnable task;
+	final AtomicInteger state = new AtomicInteger(IDLE);
+	volatile long lastStart = IntervalChecker.FORCED_DUE;
+
+	private Debouncer(final Executor executor, final ScheduledExecutorService scheduler, final long interval, final Runnable task) {
+		this.executor = executor;
+		this.scheduler = scheduler;
+		this.interval = interval;
+		this.task = task;
+	}
+
+	/**
+	 * Requests an execution of the task. Does not block.
+	 *
+	 * @return true if a new execution was started or scheduled, false if the request was coalesced with a pending one.
+	 */
+	public boolean trigger() {
+		while (true) {
+			switch (state.get()) {
+				case IDLE:
+					if (state.compareAndSet(IDLE, SCHEDULED)) {
+						submit();
+						return true;
+					}
+					break;
+				case RUNNING:
+					if (state.compareAndSet(RUNNING, RUNNING_DIRTY)) {
+						return false;
+					}
+					break;
+				default: // a run is pending, or already marked for a follow-up
+					return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether or not the task is currently scheduled or running.
+	 *
+	 * @return true if the task is scheduled or running, false if idle.
+	 */
+	public boolean isBusy() {
+		return state.get() != IDLE;
+	}
+
+	void submit() {
+		final long started = lastStart;
+		final long delay = (started == IntervalChecker.FORCED_DUE) ? 0 : started + interval - System.nanoTime();
+		try {
+			if (delay > 0) {
+				scheduler.schedule(this::run, delay, TimeUnit.NANOSECONDS);
+			} else {
+				executor.execute(this::run);
+			}
+		} catch (RejectedExecutionException e) {
+			state.set(IDLE);
+			throw e;
+		}
+	}
+
+	void run() {
+		lastStart = System.nanoTime();
+		state.set(RUNNING);
+		try {
+			task.run();
+		} finally {
+			if (!state.compareAndSet(RUNNING, IDLE)) { // there were requests during the run
+				state.set(SCHEDULED);
+				submit();
+			}
+		}
+	}
+}
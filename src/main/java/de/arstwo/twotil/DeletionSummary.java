@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+/**
+ * The outcome of a bulk deletion.
+ *
+ * @see FileUtil#deleteRecursively(java.nio.file.Path, java.util.concurrent.ForkJoinPool)
+ */
+public final class DeletionSummary {
+
+	private final long deleted;
+	private final long failed;
+	private final long bytesFreed;
+
+	DeletionSummary(final long deleted, final long failed, final long bytesFreed) {
+		this.deleted = deleted;
+		this.failed = failed;
+		this.bytesFreed = bytesFreed;
+	}
+
+	/**
+	 * Returns the amount of deleted files and directories.
+	 */
+	public long getDeleted() {
+		return deleted;
+	}
+
+	/**
+	 * Returns the amount of files and directories that could not be read or deleted.
+	 */
+	public long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Returns the total size of the deleted files.
+	 */
+	public long getBytesFreed() {
+		return bytesFreed;
+	}
+
+	@Override
+	public String toString() {
+		return "DeletionSummary{deleted=" + deleted + ", failed=" + failed + ", bytesFreed=" + bytesFreed + '}';
+	}
+}
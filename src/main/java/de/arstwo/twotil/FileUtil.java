@@ -16,13 +16,43 @@
 package de.arstwo.twotil;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 /**
@@ -34,7 +64,14 @@ public class FileUtil {
 	 * Creates a predicate for a functional context to test if a file is older than a given time frame.
 	 */
 	public static Predicate<Path> fileOlderThan(final long amountToSubtract, final TemporalUnit unit) {
-		final Instant compareInstant = Instant.now().minus(amountToSubtract, unit);
+		return fileOlderThan(amountToSubtract, unit, Clock.systemUTC());
+	}
+
+	/**
+	 * Creates a predicate for a functional context to test if a file is older than a given time frame, measured from the current time of the given clock.
+	 */
+	public static Predicate<Path> fileOlderThan(final long amountToSubtract, final TemporalUnit unit, final Clock clock) {
+		final Instant compareInstant = Instant.now(clock).minus(amountToSubtract, unit);
 		return (final Path p) -> {
 			try {
 				return Files.getLastModifiedTime(p).toInstant().isBefore(compareInstant);
@@ -44,20 +81,177 @@ public class FileUtil {
 		};
 	}
 
+	/**
+	 * Creates a scan filter that matches entries last modified before a given time frame. Uses the attributes of the scan, so no additional file system
+	 * access is required.
+	 */
+	public static BiPredicate<Path, BasicFileAttributes> olderThan(final long amountToSubtract, final TemporalUnit unit) {
+		return olderThan(amountToSubtract, unit, Clock.systemUTC());
+	}
+
+	/**
+	 * Creates a scan filter that matches entries last modified before a given time frame, measured from the current time of the given clock.
+	 */
+	public static BiPredicate<Path, BasicFileAttributes> olderThan(final long amountToSubtract, final TemporalUnit unit, final Clock clock) {
+		final Instant compareInstant = Instant.now(clock).minus(amountToSubtract, unit);
+		return (final Path p, final BasicFileAttributes attributes) -> attributes.lastModifiedTime().toInstant().isBefore(compareInstant);
+	}
+
+	/**
+	 * Creates a scan filter that matches entries with a size larger than the given amount of bytes.
+	 */
+	public static BiPredicate<Path, BasicFileAttributes> largerThan(final long bytes) {
+		return (final Path p, final BasicFileAttributes attributes) -> attributes.size() > bytes;
+	}
+
+	/**
+	 * Creates a scan filter that matches regular files only.
+	 */
+	public static BiPredicate<Path, BasicFileAttributes> regularFiles() {
+		return (final Path p, final BasicFileAttributes attributes) -> attributes.isRegularFile();
+	}
+
+	/**
+	 * Walks a directory tree and passes every non-directory entry that matches the filter to the action, reading the attributes only once per entry.
+	 * Returns false if any part of the tree could not be read, the remaining tree is scanned anyway.
+	 */
+	public static boolean scan(final Path root, final BiPredicate<Path, BasicFileAttributes> filter, final BiConsumer<Path, BasicFileAttributes> action) {
+		final AtomicBoolean success = new AtomicBoolean(true);
+		try {
+			Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+					if (filter.test(file, attributes)) {
+						action.accept(file, attributes);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+					success.set(false);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(final Path directory, final IOException e) {
+					if (e != null) { // listing the directory failed part-way
+						success.set(false);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			return false;
+		}
+		return success.get();
+	}
+
+	/**
+	 * Walks a directory tree like {@link #scan(Path, BiPredicate, BiConsumer)}, but scans subdirectories in parallel on the given pool. The action must be
+	 * thread-safe.
+	 */
+	public static boolean scan(final Path root, final BiPredicate<Path, BasicFileAttributes> filter, final BiConsumer<Path, BasicFileAttributes> action,
+					final ForkJoinPool pool) {
+		final AtomicBoolean success = new AtomicBoolean(true);
+		pool.invoke(new ScanAction(null, root, filter, action, success));
+		return success.get();
+	}
+
+	/**
+	 * Returns all non-directory entries of a tree that match the filter, or whatever could be found if parts of the tree could not be read.
+	 */
+	public static List<Path> findFiles(final Path root, final BiPredicate<Path, BasicFileAttributes> filter) {
+		final List<Path> result = new ArrayList<>();
+		scan(root, filter, (final Path p, final BasicFileAttributes attributes) -> result.add(p));
+		return result;
+	}
+
+	/**
+	 * Scans the direct entries of one directory and forks a new action for each subdirectory. Subdirectories are never joined, the actions complete through
+	 * their pending count, so deep trees do not nest on the worker stack.
+	 */
+	static class ScanAction extends CountedCompleter<Void> {
+
+		final Path directory;
+		final BiPredicate<Path, BasicFileAttributes> filter;
+		final BiConsumer<Path, BasicFileAttributes> action;
+		final AtomicBoolean success;
+
+		ScanAction(final ScanAction parent, final Path directory, final BiPredicate<Path, BasicFileAttributes> filter,
+						final BiConsumer<Path, BasicFileAttributes> action, final AtomicBoolean success) {
+			super(parent);
+			this.directory = directory;
+			this.filter = filter;
+			this.action = action;
+			this.success = success;
+		}
+
+		@Override
+		public void compute() {
+			try {
+				Files.walkFileTree(directory, Collections.emptySet(), 1, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+						if (attributes.isDirectory()) {
+							addToPendingCount(1);
+							new ScanAction(ScanAction.this, file, filter, action, success).fork();
+						} else if (filter.test(file, attributes)) {
+							action.accept(file, attributes);
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+						success.set(false);
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException e) {
+				success.set(false);
+			}
+			tryComplete();
+		}
+	}
+
+	/**
+	 * Size of the per-thread buffer used to transfer data from streams into files.
+	 */
+	static final int TRANSFER_BUFFER_SIZE = 256 * 1024;
+	static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> new byte[TRANSFER_BUFFER_SIZE]);
+
 	/**
 	 * Extracts the content of a zip file to a given target directory.
 	 * <p>
 	 * Ignores directories in the zip, only files in the root directory are extracted.
 	 */
 	public static boolean unzipRootOnly(final Path source, final Path targetDir) {
+		return unzip(source, targetDir, FileUtil::isRootFile);
+	}
+
+	/**
+	 * Extracts the content of a zip file to a given target directory, inflating the entries concurrently on the given executor.
+	 * <p>
+	 * Ignores directories in the zip, only files in the root directory are extracted. Returns after all entries have been processed.
+	 */
+	public static boolean unzipRootOnly(final Path source, final Path targetDir, final Executor executor) {
+		return unzip(source, targetDir, FileUtil::isRootFile, executor);
+	}
+
+	/**
+	 * Extracts the full content of a zip file including all sub directories to a given target directory.
+	 * <p>
+	 * Only entries that pass the given filter are extracted. Entries that would end up outside the target directory ("zip slip") abort the extraction, and
+	 * false is returned.
+	 */
+	public static boolean unzip(final Path source, final Path targetDir, final Predicate<ZipEntry> filter) {
+		final Path root = targetDir.toAbsolutePath().normalize();
 		try (final ZipInputStream zis = new ZipInputStream(Files.newInputStream(source))) {
 			ZipEntry zipEntry;
 			while ((zipEntry = zis.getNextEntry()) != null) {
-				if (!zipEntry.isDirectory()
-								&& !zipEntry.getName().contains("/")
-								&& !zipEntry.getName().contains("\\")) {
-					final Path target = targetDir.resolve(zipEntry.getName());
-					Files.copy(zis, target, StandardCopyOption.REPLACE_EXISTING);
+				if (filter.test(zipEntry)) {
+					extractEntry(zis, zipEntry, root);
 				}
 				zis.closeEntry();
 			}
@@ -67,6 +261,334 @@ public class FileUtil {
 		}
 	}
 
+	/**
+	 * Extracts the full content of a zip file including all sub directories to a given target directory, inflating the entries concurrently on the given
+	 * executor.
+	 * <p>
+	 * Only entries that pass the given filter are extracted. Entries that would end up outside the target directory ("zip slip") are rejected, and false is
+	 * returned. Returns after all entries have been processed.
+	 */
+	public static boolean unzip(final Path source, final Path targetDir, final Predicate<ZipEntry> filter, final Executor executor) {
+		final Path root = targetDir.toAbsolutePath().normalize();
+		try (final ZipFile zipFile = new ZipFile(source.toFile())) {
+			final List<CompletableFuture<Void>> extractions = zipFile.stream()
+							.filter(filter)
+							.map(zipEntry -> CompletableFuture.runAsync(() -> {
+								try (final InputStream in = zipFile.getInputStream(zipEntry)) {
+									extractEntry(in, zipEntry, root);
+								} catch (IOException e) {
+									throw new UncheckedIOException(e);
+								}
+							}, executor))
+							.collect(Collectors.toList());
+			CompletableFuture.allOf(extractions.toArray(new CompletableFuture<?>[0])).join();
+			return true;
+		} catch (IOException | CompletionException e) {
+			return false;
+		}
+	}
+
+	static boolean isRootFile(final ZipEntry zipEntry) {
+		return !zipEntry.isDirectory()
+						&& !zipEntry.getName().contains("/")
+						&& !zipEntry.getName().contains("\\");
+	}
+
+	/**
+	 * Resolves a zip entry against the normalized target directory and rejects entries that would end up outside of it.
+	 */
+	static Path resolveEntry(final Path root, final ZipEntry zipEntry) throws IOException {
+		final Path result = root.resolve(zipEntry.getName()).normalize();
+		if (!result.startsWith(root)) {
+			throw new IOException("Zip entry is outside of the target directory: " + zipEntry.getName());
+		}
+		return result;
+	}
+
+	static void extractEntry(final InputStream in, final ZipEntry zipEntry, final Path root) throws IOException {
+		final Path target = resolveEntry(root, zipEntry);
+		if (zipEntry.isDirectory()) {
+			if (!target.equals(root)) { // entries like "./" denote the target directory itself
+				Files.createDirectories(target);
+			}
+		} else {
+			Files.createDirectories(target.getParent());
+			transfer(in, target);
+		}
+	}
+
+	/**
+	 * Writes the remaining content of a stream into a file, using the transfer buffer of the current thread.
+	 */
+	static void transfer(final InputStream in, final Path target) throws IOException {
+		try (final FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final byte[] buffer = TRANSFER_BUFFER.get();
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				final ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+				while (data.hasRemaining()) {
+					out.write(data);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compresses a file into a gzip file, compressing blocks of the file concurrently on the given executor.
+	 *
+	 * @see ParallelGzipOutputStream
+	 */
+	public static boolean gzip(final Path source, final Path target, final Executor executor) {
+		try (final InputStream in = Files.newInputStream(source);
+						final OutputStream out = new ParallelGzipOutputStream(Files.newOutputStream(target), executor)) {
+			final byte[] buffer = TRANSFER_BUFFER.get();
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Copies a file with a kernel-side transfer, without passing the data through user space where supported. Replaces an existing target and keeps the last
+	 * modified time.
+	 */
+	public static boolean copyFile(final Path source, final Path target) {
+		return copyFile(source, target, false);
+	}
+
+	/**
+	 * Copies a file like {@link #copyFile(Path, Path)}, optionally setting the target to its final length before the transfer starts. This only sets the
+	 * length and reserves no disk space, the target may be sparse until the data is written.
+	 */
+	public static boolean copyFile(final Path source, final Path target, final boolean preallocate) {
+		try {
+			transferFile(source, target, preallocate);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Copies a directory tree, creating directories as needed and copying the files in parallel on the given pool. Fails if the target is inside the source.
+	 */
+	public static boolean copyDirectory(final Path source, final Path target, final ForkJoinPool pool) {
+		if (target.toAbsolutePath().normalize().startsWith(source.toAbsolutePath().normalize())) { // would copy its own output endlessly
+			return false;
+		}
+		final AtomicBoolean success = new AtomicBoolean(true);
+		pool.invoke(new CopyAction(null, source, target, success));
+		return success.get();
+	}
+
+	/**
+	 * Moves a file or directory tree. Tries an atomic rename first, and if the target is on a different file store copies the data and deletes the source.
+	 * Replaces an existing target file.
+	 */
+	public static boolean move(final Path source, final Path target, final ForkJoinPool pool) {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch (AtomicMoveNotSupportedException e) {
+			if (Files.isDirectory(source, LinkOption.NOFOLLOW_LINKS)) {
+				return copyDirectory(source, target, pool) && (deleteRecursively(source, pool).getFailed() == 0);
+			} else {
+				return copyFile(source, target) && tryDeletePath(source);
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Transfers a file with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, looping until all data is copied since a
+	 * single call may transfer less.
+	 */
+	static void transferFile(final Path source, final Path target, final boolean preallocate) throws IOException {
+		if (Files.exists(target) && Files.isSameFile(source, target)) { // opening the target would truncate the source
+			return;
+		}
+		try (final FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+						final FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final long size = in.size();
+			if (preallocate && (size > 0)) {
+				out.write(ByteBuffer.wrap(new byte[1]), size - 1);
+			}
+			long position = 0;
+			while (position < size) {
+				final long transferred = in.transferTo(position, size - position, out);
+				if (transferred <= 0) { // the source shrank meanwhile
+					break;
+				}
+				position += transferred;
+			}
+			if (out.size() > position) {
+				out.truncate(position);
+			}
+		}
+		Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+	}
+
+	/**
+	 * Copies the files of one directory as forked tasks and forks a new action for each subdirectory. Nothing is joined, the actions complete through their
+	 * pending count, so deep trees do not nest on the worker stack.
+	 */
+	static class CopyAction extends CountedCompleter<Void> {
+
+		final Path source;
+		final Path target;
+		final AtomicBoolean success;
+
+		CopyAction(final CountedCompleter<?> parent, final Path source, final Path target, final AtomicBoolean success) {
+			super(parent);
+			this.source = source;
+			this.target = target;
+			this.success = success;
+		}
+
+		@Override
+		public void compute() {
+			try {
+				Files.createDirectories(target);
+				Files.walkFileTree(source, Collections.emptySet(), 1, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+						final Path fileTarget = target.resolve(file.getFileName().toString());
+						addToPendingCount(1);
+						if (attributes.isDirectory()) {
+							new CopyAction(CopyAction.this, file, fileTarget, success).fork();
+						} else {
+							new CopyFileTask(CopyAction.this, file, fileTarget, success).fork();
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+						success.set(false);
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException e) {
+				success.set(false);
+			}
+			tryComplete();
+		}
+	}
+
+	/**
+	 * Copies a single file as part of a directory copy.
+	 */
+	static class CopyFileTask extends CountedCompleter<Void> {
+
+		final Path source;
+		final Path target;
+		final AtomicBoolean success;
+
+		CopyFileTask(final CountedCompleter<?> parent, final Path source, final Path target, final AtomicBoolean success) {
+			super(parent);
+			this.source = source;
+			this.target = target;
+			this.success = success;
+		}
+
+		@Override
+		public void compute() {
+			if (!copyFile(source, target)) {
+				success.set(false);
+			}
+			tryComplete();
+		}
+	}
+
+	/**
+	 * Passes every line of a file to the action without allocating a String per line, decoding one byte per character.
+	 *
+	 * @see MappedRecordReader
+	 */
+	public static boolean forEachLine(final Path file, final Consumer<? super CharSequence> action) {
+		try {
+			MappedRecordReader.lines(file).forEachLine(action);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Durably replaces the content of a file: writes a temporary file in the same directory, forces it to disk and atomically renames it over the target,
+	 * then syncs the directory. Readers see either the old or the new content, never a partial one.
+	 *
+	 * @see GroupCommitWriter
+	 */
+	public static boolean writeAtomic(final Path target, final byte[] data) {
+		final Path absoluteTarget = target.toAbsolutePath();
+		Path temp = null;
+		try {
+			temp = createTempSibling(absoluteTarget);
+			try (final FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				writeFully(out, data);
+				out.force(true);
+			}
+			Files.move(temp, absoluteTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			syncDirectory(absoluteTarget.getParent());
+			return true;
+		} catch (IOException e) {
+			if (temp != null) {
+				tryDeletePath(temp);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Creates an empty temporary file next to the given absolute target, so it can be renamed atomically onto it. The file gets the permissions of an
+	 * existing target, or the default permissions of new files otherwise, so the rename does not change them.
+	 */
+	static Path createTempSibling(final Path target) throws IOException {
+		Path result;
+		while (true) {
+			result = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try {
+				Files.createFile(result);
+				break;
+			} catch (FileAlreadyExistsException e) {
+				// name collision, try again
+			}
+		}
+		try {
+			Files.setPosixFilePermissions(result, Files.getPosixFilePermissions(target));
+		} catch (NoSuchFileException | UnsupportedOperationException e) {
+			// new target or no POSIX permissions, keep the defaults
+		} catch (IOException e) {
+			tryDeletePath(result);
+			throw e;
+		}
+		return result;
+	}
+
+	static void writeFully(final FileChannel out, final byte[] data) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(data);
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+
+	/**
+	 * Forces a directory entry change like a rename to disk. Not supported on all platforms, failures are ignored.
+	 */
+	static void syncDirectory(final Path directory) {
+		try (final FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// best effort, e.g. directories cannot be opened on Windows
+		}
+	}
+
 	/**
 	 * Tries to delete a given path, catches potential IOExceptions, and returns true on success, false otherwise.
 	 */
@@ -79,6 +601,170 @@ public class FileUtil {
 		}
 	}
 
+	/**
+	 * Deletes a directory tree including the root on the given pool, processing directories in parallel and removing them once their content is gone.
+	 */
+	public static DeletionSummary deleteRecursively(final Path root, final ForkJoinPool pool) {
+		return deleteRecursively(root, RetentionPolicy.none(), true, pool);
+	}
+
+	/**
+	 * Cleans up a directory tree on the given pool, applying the retention policy to the files of each directory separately. Directories that end up empty are
+	 * removed, the root is kept.
+	 */
+	public static DeletionSummary deleteRecursively(final Path root, final RetentionPolicy policy, final ForkJoinPool pool) {
+		return deleteRecursively(root, policy, false, pool);
+	}
+
+	static DeletionSummary deleteRecursively(final Path root, final RetentionPolicy policy, final boolean removeRoot, final ForkJoinPool pool) {
+		final DeleteAction action = new DeleteAction(null, root, policy, policy.threshold(), removeRoot, new LongAdder(), new LongAdder(), new LongAdder());
+		pool.invoke(action);
+		return new DeletionSummary(action.deleted.sum(), action.failed.sum(), action.bytesFreed.sum());
+	}
+
+	/**
+	 * Amount of files of one directory deleted by a single task, so huge flat directories are deleted in parallel as well.
+	 */
+	static final int DELETE_BATCH_SIZE = 2048;
+
+	/**
+	 * Deletes the expired files of one directory in forked batches while its subdirectories are processed by forked actions, then removes the directory if it
+	 * is empty. Nothing is joined, the directory is removed on completion of all children, so deep trees do not nest on the worker stack.
+	 */
+	static class DeleteAction extends CountedCompleter<Void> {
+
+		final Path directory;
+		final RetentionPolicy policy;
+		final Instant threshold;
+		final boolean removeDirectory;
+		final LongAdder deleted;
+		final LongAdder failed;
+		final LongAdder bytesFreed;
+		// cleared by this action and its children if anything in the directory is left
+		volatile boolean empty = true;
+
+		DeleteAction(final DeleteAction parent, final Path directory, final RetentionPolicy policy, final Instant threshold, final boolean removeDirectory,
+						final LongAdder deleted, final LongAdder failed, final LongAdder bytesFreed) {
+			super(parent);
+			this.directory = directory;
+			this.policy = policy;
+			this.threshold = threshold;
+			this.removeDirectory = removeDirectory;
+			this.deleted = deleted;
+			this.failed = failed;
+			this.bytesFreed = bytesFreed;
+		}
+
+		@Override
+		public void compute() {
+			final List<Path> files = new ArrayList<>();
+			final List<BasicFileAttributes> attributes = new ArrayList<>();
+			try {
+				Files.walkFileTree(directory, Collections.emptySet(), 1, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult visitFile(final Path file, final BasicFileAttributes fileAttributes) {
+						if (fileAttributes.isDirectory()) {
+							addToPendingCount(1);
+							new DeleteAction(DeleteAction.this, file, policy, threshold, true, deleted, failed, bytesFreed).fork();
+						} else {
+							files.add(file);
+							attributes.add(fileAttributes);
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+						failed.increment();
+						empty = false;
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult postVisitDirectory(final Path dir, final IOException e) {
+						if (e != null) { // listing failed part-way, still handle what was collected
+							failed.increment();
+							empty = false;
+						}
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException e) {
+				failed.increment();
+				empty = false;
+			}
+
+			final int[] expired = policy.expired(attributes, threshold).stream().toArray();
+			if (expired.length < files.size()) {
+				empty = false;
+			}
+			for (int from = 0; from < expired.length; from += DELETE_BATCH_SIZE) {
+				addToPendingCount(1);
+				new DeleteBatch(this, files, attributes, expired, from, Math.min(expired.length, from + DELETE_BATCH_SIZE)).fork();
+			}
+			tryComplete();
+		}
+
+		/**
+		 * Called once all batches and subdirectories are done, removes the directory if nothing is left in it.
+		 */
+		@Override
+		public void onCompletion(final CountedCompleter<?> caller) {
+			boolean removed = false;
+			if (empty && removeDirectory) {
+				try {
+					Files.delete(directory);
+					deleted.increment();
+					removed = true;
+				} catch (IOException e) {
+					failed.increment();
+				}
+			}
+			if (!removed && (getCompleter() != null)) {
+				((DeleteAction) getCompleter()).empty = false;
+			}
+		}
+	}
+
+	/**
+	 * Deletes a range of the expired files of one directory, and marks the directory as not empty if any of them could not be deleted.
+	 */
+	static class DeleteBatch extends CountedCompleter<Void> {
+
+		final DeleteAction owner;
+		final List<Path> files;
+		final List<BasicFileAttributes> attributes;
+		final int[] indexes;
+		final int from;
+		final int to;
+
+		DeleteBatch(final DeleteAction owner, final List<Path> files, final List<BasicFileAttributes> attributes, final int[] indexes, final int from,
+						final int to) {
+			super(owner);
+			this.owner = owner;
+			this.files = files;
+			this.attributes = attributes;
+			this.indexes = indexes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void compute() {
+			for (int i = from; i < to; ++i) {
+				try {
+					Files.delete(files.get(indexes[i]));
+					owner.deleted.increment();
+					owner.bytesFreed.add(attributes.get(indexes[i]).size());
+				} catch (IOException e) {
+					owner.failed.increment();
+					owner.empty = false;
+				}
+			}
+			tryComplete();
+		}
+	}
+
 	/**
 	 * Do not instantiate.
 	 */
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Writes many small files atomically and durably, sharing the cost of the disk syncs between all writes of a commit window.
+ * <p>
+ * Every write is done like {@link FileUtil#writeAtomic(Path, byte[])}, but asynchronously: writes are collected, and one commit per window writes all of them
+ * together. A file written again before its previous write was committed is only written once, with the latest content. The temporary files are written
+ * first and forced afterwards, so the disk can work on them together, and each directory is synced only once per commit.
+ * <p>
+ * The first write after a quiet period is committed immediately, later ones wait for the end of the window, see {@link Debouncer}. The returned future
+ * completes once the data is durable, or exceptionally if the write failed.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   GroupCommitWriter writer = GroupCommitWriter.every(10, ChronoUnit.MILLIS, scheduler);
+ *   writer.write(stateDir.resolve(id + ".json"), json.getBytes(StandardCharsets.UTF_8))
+ *       .thenRun(() -> acknowledge(id));
+ * }
+ * </pre>
+ */
+public final class GroupCommitWriter implements AutoCloseable {
+
+	/**
+	 * Maximum amount of temporary files a commit keeps open at the same time.
+	 */
+	static final int MAX_OPEN_FILES = 256;
+
+	/**
+	 * Creates a new writer that commits at most once per window on the given executor.
+	 *
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @param executor the executor to run and schedule the commits on.
+	 * @return a new GroupCommitWriter.
+	 */
+	public static GroupCommitWriter every(final long amount, final TemporalUnit unit, final ScheduledExecutorService executor) {
+		return new GroupCommitWriter(amount, unit, executor);
+	}
+
+	final Debouncer committer;
+	final Object commitLock = new Object();
+	Map<Path, PendingWrite> pending = new LinkedHashMap<>();
+	boolean closed = false;
+
+	private GroupCommitWriter(final long amount, final TemporalUnit unit, final ScheduledExecutorService executor) {
+		this.committer = Debouncer.every(amount, unit, executor, this::commit);
+	}
+
+	/**
+	 * Schedules the content of a file to be replaced atomically. The data must not be changed afterwards.
+	 *
+	 * @param target the file to write.
+	 * @param data the new content of the file.
+	 * @return a future that completes when the content is durable.
+	 * @throws IllegalStateException if the writer was closed.
+	 */
+	public CompletableFuture<Void> write(final Path target, final byte[] data) {
+		final Path absoluteTarget = target.toAbsolutePath();
+		final CompletableFuture<Void> result;
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("Writer is closed");
+			}
+			final PendingWrite superseded = pending.get(absoluteTarget);
+			if (superseded != null) {
+				superseded.data = data;
+				return superseded.future;
+			}
+			final PendingWrite write = new PendingWrite(absoluteTarget, data);
+			pending.put(absoluteTarget, write);
+			result = write.future;
+		}
+		committer.trigger();
+		return result;
+	}
+
+	/**
+	 * Commits all pending writes on the calling thread and rejects further writes.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+		}
+		commit();
+	}
+
+	/**
+	 * Writes and syncs all pending writes as one batch. Commits never overlap, so writes to the same file are applied in order. The temporary files are
+	 * written and forced in groups of at most {@link #MAX_OPEN_FILES}, so a large backlog does not run out of file descriptors.
+	 */
+	void commit() {
+		synchronized (commitLock) {
+			final Map<Path, PendingWrite> batch;
+			synchronized (this) {
+				batch = pending;
+				pending = new LinkedHashMap<>();
+			}
+			final List<PendingWrite> writes = new ArrayList<>(batch.values());
+			try {
+				final Set<Path> directories = new LinkedHashSet<>();
+				for (int from = 0; from < writes.size(); from += MAX_OPEN_FILES) {
+					final List<PendingWrite> group = writes.subList(from, Math.min(writes.size(), from + MAX_OPEN_FILES));
+					for (final PendingWrite write : group) {
+						write.writeTemp();
+					}
+					for (final PendingWrite write : group) {
+						if (write.forceAndMove()) {
+							directories.add(write.target.getParent());
+						}
+					}
+				}
+				directories.forEach(FileUtil::syncDirectory);
+				for (final PendingWrite write : writes) {
+					write.complete();
+				}
+			} catch (RuntimeException | Error e) { // never leave callers waiting on a future that cannot complete anymore
+				for (final PendingWrite write : writes) {
+					write.abort(e);
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * A write waiting for its commit.
+	 */
+	static class PendingWrite {
+
+		final Path target;
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+		byte[] data;
+		Path temp;
+		FileChannel channel;
+		IOException failure;
+
+		PendingWrite(final Path target, final byte[] data) {
+			this.target = target;
+			this.data = data;
+		}
+
+		void writeTemp() {
+			try {
+				temp = FileUtil.createTempSibling(target);
+				channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+				FileUtil.writeFully(channel, data);
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		boolean forceAndMove() {
+			if (failure != null) {
+				return false;
+			}
+			try {
+				try {
+					channel.force(true);
+				} finally {
+					channel.close();
+				}
+				channel = null;
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				temp = null;
+				return true;
+			} catch (IOException e) {
+				fail(e);
+				return false;
+			}
+		}
+
+		void fail(final IOException e) {
+			failure = e;
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException closeFailure) {
+					e.addSuppressed(closeFailure);
+				}
+				channel = null;
+			}
+			if (temp != null) {
+				FileUtil.tryDeletePath(temp);
+				temp = null;
+			}
+		}
+
+		/**
+		 * Cleans up after a commit that failed unexpectedly, and fails the future unless it was completed already.
+		 */
+		void abort(final Throwable cause) {
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					cause.addSuppressed(e);
+				}
+				channel = null;
+			}
+			if (temp != null) {
+				FileUtil.tryDeletePath(temp);
+				temp = null;
+			}
+			future.completeExceptionally(cause);
+		}
+
+		void complete() {
+			if (failure == null) {
+				future.complete(null);
+			} else {
+				future.completeExceptionally(failure);
+			}
+		}
+	}
+}
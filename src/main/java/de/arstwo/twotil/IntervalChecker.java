@@ -15,17 +15,22 @@
  */
 package de.arstwo.twotil;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * A utility class designed for managing and checking time intervals in a thread-safe manner.
  * <p>
  * This class simplifies the boilerplate code necessary to handle interval checking.
  * <p>
+ * Checks do not allocate any objects, the next deadline is stored as a primitive value of the underlying time source. Any {@link Clock} can be used as the
+ * time source, for example a {@link CoarseClock} for very frequent checks or a manually advanced clock for tests.
+ * <p>
  * Usage example:
  * <pre>{@code
  *   IntervalChecker everyMinute = IntervalChecker.every(1, ChronoUnit.MINUTES);
@@ -39,8 +44,15 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class IntervalChecker {
 
+	/**
+	 * Marker for a deadline that is due on the next check, regardless of the current time.
+	 */
+	static final long FORCED_DUE = Long.MIN_VALUE;
+
 	/**
 	 * Creates a new IntervalChecker with the specified time interval. The returned timer is marked as "due".
+	 * <p>
+	 * The interval is measured in wall-clock time with millisecond precision.
 	 *
 	 * @param amount The amount of the specified unit.
 	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
@@ -48,23 +60,69 @@ public class IntervalChecker {
 	 * @see ChronoUnit
 	 */
 	public static IntervalChecker every(final long amount, final TemporalUnit unit) {
+		return every(amount, unit, Clock.systemUTC());
+	}
+
+	/**
+	 * Creates a new IntervalChecker with the specified time interval that reads the time from the given clock. The returned timer is marked as "due".
+	 * <p>
+	 * Intervals of whole milliseconds are measured on {@link Clock#millis()} without allocation, finer intervals are measured on {@link Clock#instant()} with
+	 * nanosecond precision.
+	 *
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @param clock The clock to read the current time from.
+	 * @return An IntervalChecker set to the specified time interval.
+	 * @see CoarseClock
+	 */
+	public static IntervalChecker every(final long amount, final TemporalUnit unit, final Clock clock) {
+		final Duration interval = toDuration(amount, unit);
+		if (interval.getNano() % 1_000_000 == 0) {
+			return new IntervalChecker(clock::millis, interval.toMillis());
+		} else {
+			return new IntervalChecker(() -> epochNanos(clock.instant()), interval.toNanos());
+		}
+	}
+
+	static long epochNanos(final Instant instant) {
+		return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+	}
+
+	/**
+	 * Creates a new IntervalChecker with the specified time interval that is backed by {@link System#nanoTime()}. The returned timer is marked as "due".
+	 * <p>
+	 * The interval is measured on the monotonic clock of the JVM, so it is not affected by changes to the wall-clock time, like NTP adjustments or daylight
+	 * saving.
+	 *
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return An IntervalChecker set to the specified time interval.
+	 * @see ChronoUnit
+	 */
+	public static IntervalChecker monotonic(final long amount, final TemporalUnit unit) {
+		return new IntervalChecker(System::nanoTime, toDuration(amount, unit).toNanos());
+	}
+
+	static Duration toDuration(final long amount, final TemporalUnit unit) {
 		if (amount > 0) {
-			return new IntervalChecker(Duration.of(amount, unit));
+			return Duration.of(amount, unit);
 		} else {
 			throw new IllegalArgumentException("Amount of interval must be > 0");
 		}
 	}
 
-	final Duration intervalDuration;
-	final AtomicReference<Instant> lastCheck = new AtomicReference(null);
+	final LongSupplier timeSource;
+	final long interval;
+	final AtomicLong deadline = new AtomicLong(FORCED_DUE);
 
-	private IntervalChecker(final Duration intervalDuration) {
-		this.intervalDuration = intervalDuration;
+	IntervalChecker(final LongSupplier timeSource, final long interval) {
+		this.timeSource = timeSource;
+		this.interval = interval;
 	}
 
-	boolean isDue(final Instant checkTime) {
-		return (checkTime == null)
-						|| checkTime.plus(intervalDuration).isBefore(Instant.now());
+	boolean isDue(final long deadline, final long now) {
+		return (deadline == FORCED_DUE)
+						|| (now - deadline > 0);
 	}
 
 	/**
@@ -73,13 +131,17 @@ public class IntervalChecker {
 	 * @return true if the time had expired, otherwise false.
 	 */
 	public boolean updateIfDue() {
-		Instant checkTime;
+		final long now = timeSource.getAsLong();
+		long checkDeadline;
 
 		do {
-			checkTime = lastCheck.get();
-		} while (isDue(checkTime) && !lastCheck.compareAndSet(checkTime, Instant.now()));
+			checkDeadline = deadline.get();
+			if (!isDue(checkDeadline, now)) {
+				return false;
+			}
+		} while (!deadline.compareAndSet(checkDeadline, now + interval));
 
-		return isDue(checkTime);
+		return true;
 	}
 
 	/**
@@ -101,13 +163,13 @@ public class IntervalChecker {
 	 * Forces a new time interval. Typically when the task has been completed externally.
 	 */
 	public void forceChecked() {
-		this.lastCheck.set(Instant.now());
+		this.deadline.set(timeSource.getAsLong() + interval);
 	}
 
 	/**
 	 * Forces the timer to indicate that the interval time has expired at the next check.
 	 */
 	public void forceDue() {
-		this.lastCheck.set(null);
+		this.deadline.set(FORCED_DUE);
 	}
 }
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link IntervalChecker} for many independent keys, for example to debounce actions per user or per entity.
+ * <p>
+ * Each key only occupies a slot in a compact open-addressing table that stores the key and a primitive deadline. Keys whose interval has passed are
+ * indistinguishable from keys that were never seen (both are "due"), so they are evicted automatically while the table is used. Memory therefore scales with
+ * the amount of keys that were checked within the last interval, not with every key ever seen.
+ * <p>
+ * The table is split into segments that are locked individually, so concurrent checks on different keys rarely contend.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   KeyedIntervalChecker<Long> perUser = KeyedIntervalChecker.every(1, ChronoUnit.MINUTES);
+ *   if (perUser.updateIfDue(userID)) {
+ *     // Do the task for that user...
+ *   }
+ *   // alternatively:
+ *   perUser.executeIfDue(userID, () -> notify(userID));
+ * }
+ * </pre>
+ *
+ * @param <K> any, must implement hashCode and equals properly.
+ */
+public final class KeyedIntervalChecker<K> {
+
+	private static final int SEGMENT_BITS = 4;
+	private static final int SEGMENTS = 1 << SEGMENT_BITS;
+	private static final int MIN_CAPACITY = 16;
+	private static final int SWEEP_SLOTS = 2;
+
+	/**
+	 * Creates a new KeyedIntervalChecker with the specified time interval. All keys are initially "due".
+	 * <p>
+	 * The interval is measured in wall-clock time with millisecond precision.
+	 *
+	 * @param <K> any
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return A KeyedIntervalChecker set to the specified time interval.
+	 */
+	public static <K> KeyedIntervalChecker<K> every(final long amount, final TemporalUnit unit) {
+		return every(amount, unit, Clock.systemUTC());
+	}
+
+	/**
+	 * Creates a new KeyedIntervalChecker with the specified time interval that reads the time from the given clock. All keys are initially "due".
+	 * <p>
+	 * Intervals of whole milliseconds are measured on {@link Clock#millis()} without allocation, finer intervals are measured on {@link Clock#instant()} with
+	 * nanosecond precision.
+	 *
+	 * @param <K> any
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @param clock The clock to read the current time from.
+	 * @return A KeyedIntervalChecker set to the specified time interval.
+	 */
+	public static <K> KeyedIntervalChecker<K> every(final long amount, final TemporalUnit unit, final Clock clock) {
+		final Duration interval = IntervalChecker.toDuration(amount, unit);
+		if (interval.getNano() % 1_000_000 == 0) {
+			return new KeyedIntervalChecker<>(clock::millis, interval.toMillis());
+		} else {
+			return new KeyedIntervalChecker<>(() -> IntervalChecker.epochNanos(clock.instant()), interval.toNanos());
+		}
+	}
+
+	/**
+	 * Creates a new KeyedIntervalChecker with the specified time interval that is backed by {@link System#nanoTime()}. All keys are initially "due".
+	 *
+	 * @param <K> any
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return A KeyedIntervalChecker set to the specified time interval.
+	 */
+	public static <K> KeyedIntervalChecker<K> monotonic(final long amount, final TemporalUnit unit) {
+		return new KeyedIntervalChecker<>(System::nanoTime, IntervalChecker.toDuration(amount, unit).toNanos());
+	}
+
+	final LongSupplier timeSource;
+	final long interval;
+	final Segment[] segments = new Segment[SEGMENTS];
+
+	private KeyedIntervalChecker(final LongSupplier timeSource, final long interval) {
+		this.timeSource = timeSource;
+		this.interval = interval;
+		for (int i = 0; i < SEGMENTS; ++i) {
+			segments[i] = new Segment();
+		}
+	}
+
+	static int hash(final Object key) {
+		final int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	Segment segmentFor(final int hash) {
+		return segments[hash >>> (32 - SEGMENT_BITS)];
+	}
+
+	/**
+	 * Checks the interval of the given key and atomically resets its timer if the time has expired.
+	 *
+	 * @param key the key to check.
+	 * @return true if the time had expired for that key, otherwise false.
+	 */
+	public boolean updateIfDue(final K key) {
+		final int hash = hash(Objects.requireNonNull(key));
+		final long now = timeSource.getAsLong();
+		final Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			final boolean result = segment.updateIfDue(key, hash, now, now + interval);
+			segment.sweep(now);
+			return result;
+		}
+	}
+
+	/**
+	 * Executes the specified operation if the interval of the given key has expired. In that case, also resets the timer of that key.
+	 *
+	 * @param key the key to check.
+	 * @param task The task to be performed.
+	 * @return true if the interval had expired, otherwise false.
+	 */
+	public boolean executeIfDue(final K key, final Runnable task) {
+		if (updateIfDue(key)) {
+			task.run();
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Forces a new time interval for the given key. Typically when the task has been completed externally.
+	 *
+	 * @param key the key to reset.
+	 */
+	public void forceChecked(final K key) {
+		final int hash = hash(Objects.requireNonNull(key));
+		final long now = timeSource.getAsLong();
+		final Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			segment.put(key, hash, now, now + interval);
+		}
+	}
+
+	/**
+	 * Forces the timer of the given key to indicate that the interval time has expired at the next check.
+	 *
+	 * @param key the key to reset.
+	 */
+	public void forceDue(final K key) {
+		final int hash = hash(Objects.requireNonNull(key));
+		final Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			segment.remove(key, hash);
+		}
+	}
+
+	/**
+	 * Evicts all keys whose interval has expired.
+	 */
+	public void purge() {
+		final long now = timeSource.getAsLong();
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				segment.rehash(now, 0);
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of keys currently held. This includes keys that are already due, but have not been evicted yet.
+	 *
+	 * @return the amount of keys currently held.
+	 */
+	public int size() {
+		int result = 0;
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				result += segment.size;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * A linear-probing hash table of keys and their deadlines. Not thread-safe, access must be synchronized on the segment.
+	 */
+	static final class Segment {
+
+		Object[] keys = new Object[MIN_CAPACITY];
+		long[] deadlines = new long[MIN_CAPACITY];
+		int size = 0;
+		int sweepIndex = 0;
+
+		static boolean isExpired(final long deadline, final long now) {
+			return now - deadline > 0;
+		}
+
+		int indexOf(final Object key, final int hash) {
+			final int mask = keys.length - 1;
+			for (int i = hash & mask;; i = (i + 1) & mask) {
+				final Object k = keys[i];
+				if ((k == null) || k.equals(key)) {
+					return i;
+				}
+			}
+		}
+
+		boolean updateIfDue(final Object key, final int hash, final long now, final long nextDeadline) {
+			final int index = indexOf(key, hash);
+			if (keys[index] == null) {
+				insert(index, key, hash, now, nextDeadline);
+				return true;
+			} else if (isExpired(deadlines[index], now)) {
+				deadlines[index] = nextDeadline;
+				return true;
+			} else {
+				return false;
+			}
+		}
+
+		void put(final Object key, final int hash, final long now, final long nextDeadline) {
+			final int index = indexOf(key, hash);
+			if (keys[index] == null) {
+				insert(index, key, hash, now, nextDeadline);
+			} else {
+				deadlines[index] = nextDeadline;
+			}
+		}
+
+		void insert(final int index, final Object key, final int hash, final long now, final long nextDeadline) {
+			if ((size + 1) * 4 > keys.length * 3) {
+				rehash(now, 1);
+				put(key, hash, now, nextDeadline);
+			} else {
+				keys[index] = key;
+				deadlines[index] = nextDeadline;
+				++size;
+			}
+		}
+
+		void remove(final Object key, final int hash) {
+			final int index = indexOf(key, hash);
+			if (keys[index] != null) {
+				removeAt(index);
+			}
+		}
+
+		/**
+		 * Removes the entry at the given index and shifts following entries of the same probe sequence back, so no tombstones are necessary.
+		 */
+		void removeAt(int index) {
+			final int mask = keys.length - 1;
+			for (int next = (index + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+				final int home = hash(keys[next]) & mask;
+				if (((next - home) & mask) >= ((next - index) & mask)) {
+					keys[index] = keys[next];
+					deadlines[index] = deadlines[next];
+					index = next;
+				}
+			}
+			keys[index] = null;
+			--size;
+		}
+
+		/**
+		 * Incrementally checks a few slots for expired entries, and shrinks the table once it is mostly empty.
+		 */
+		void sweep(final long now) {
+			final int mask = keys.length - 1;
+			for (int i = 0; i < SWEEP_SLOTS; ++i) {
+				final int index = sweepIndex & mask;
+				if ((keys[index] != null) && isExpired(deadlines[index], now)) {
+					removeAt(index);
+				} else {
+					sweepIndex = index + 1;
+				}
+			}
+			if ((keys.length > MIN_CAPACITY) && (size * 8 < keys.length)) {
+				rehash(now, 0);
+			}
+		}
+
+		/**
+		 * Rebuilds the table with all non-expired entries and room for the given amount of additional entries.
+		 */
+		void rehash(final long now, final int additional) {
+			final Object[] oldKeys = keys;
+			final long[] oldDeadlines = deadlines;
+			int live = 0;
+			for (int i = 0; i < oldKeys.length; ++i) {
+				if ((oldKeys[i] != null) && !isExpired(oldDeadlines[i], now)) {
+					++live;
+				}
+			}
+
+			int capacity = MIN_CAPACITY;
+			while (capacity < (live + additional) * 2) {
+				capacity <<= 1;
+			}
+
+			keys = new Object[capacity];
+			deadlines = new long[capacity];
+			size = 0;
+			sweepIndex = 0;
+			for (int i = 0; i < oldKeys.length; ++i) {
+				final Object key = oldKeys[i];
+				if ((key != null) && !isExpired(oldDeadlines[i], now)) {
+					final int index = indexOf(key, hash(key));
+					keys[index] = key;
+					deadlines[index] = oldDeadlines[i];
+					++size;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads delimited records, like lines, from a memory-mapped file without allocating a String or buffer per record.
+ * <p>
+ * The file is mapped in windows that are moved along record boundaries, so files larger than 2 GiB can be read as well. A window grows if a single record does
+ * not fit. Records are handed out either as a {@link ByteBuffer} positioned on the record, or as a {@link CharSequence} for single-byte encodings like ASCII
+ * or ISO-8859-1. Both are reused and only valid during the callback.
+ * <p>
+ * A reader can be split into ranges that start and end on record boundaries, to process one file in parallel. Readers are immutable and thread-safe, every
+ * read opens the file on its own.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   MappedRecordReader.lines(logFile).forEachLine(line -> {
+ *     if ((line.length() > 0) && (line.charAt(0) == 'E')) {
+ *       errors.increment();
+ *     }
+ *   });
+ *   List<MappedRecordReader> ranges = MappedRecordReader.lines(logFile).split(workers);
+ * }
+ * </pre>
+ */
+public final class MappedRecordReader {
+
+	static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+	private static final int ALIGN_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Creates a reader for the lines of a file. Lines end with '\n', and a trailing '\r' is stripped.
+	 */
+	public static MappedRecordReader lines(final Path file) throws IOException {
+		return new MappedRecordReader(file, (byte) '\n', true, DEFAULT_WINDOW_SIZE, 0, size(file));
+	}
+
+	/**
+	 * Creates a reader for the records of a file separated by the given delimiter.
+	 */
+	public static MappedRecordReader of(final Path file, final byte delimiter) throws IOException {
+		return of(file, delimiter, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a reader for the records of a file separated by the given delimiter, mapping windows of the given size at a time.
+	 */
+	public static MappedRecordReader of(final Path file, final byte delimiter, final int windowSize) throws IOException {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("Window size must be > 0");
+		}
+		return new MappedRecordReader(file, delimiter, false, windowSize, 0, size(file));
+	}
+
+	static long size(final Path file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.size();
+		}
+	}
+
+	private final Path file;
+	private final byte delimiter;
+	private final boolean stripCarriageReturn;
+	private final int windowSize;
+	private final long start;
+	private final long end;
+
+	private MappedRecordReader(final Path file, final byte delimiter, final boolean stripCarriageReturn, final int windowSize, final long start,
+					final long end) {
+		this.file = file;
+		this.delimiter = delimiter;
+		this.stripCarriageReturn = stripCarriageReturn;
+		this.windowSize = windowSize;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Returns the file offset of the first byte of this reader's range.
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * Returns the file offset after the last byte of this reader's range.
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * Splits the range of this reader into up to the given amount of ranges of similar size, each starting and ending on a record boundary. Records longer
+	 * than a range result in fewer ranges.
+	 */
+	public List<MappedRecordReader> split(final int parts) throws IOException {
+		if (parts <= 0) {
+			throw new IllegalArgumentException("Amount of parts must be > 0");
+		}
+		final List<MappedRecordReader> result = new ArrayList<>(parts);
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long rangeStart = start;
+			for (int i = 1; (i <= parts) && (rangeStart < end); ++i) {
+				final long rangeEnd = (i == parts) ? end : alignToRecord(channel, Math.max(rangeStart, start + (end - start) / parts * i));
+				if (rangeEnd > rangeStart) {
+					result.add(new MappedRecordReader(file, delimiter, stripCarriageReturn, windowSize, rangeStart, rangeEnd));
+					rangeStart = rangeEnd;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the first position at or after the given one that starts a record, or the end of the range.
+	 */
+	long alignToRecord(final FileChannel channel, final long position) throws IOException {
+		if (position <= start) {
+			return start;
+		}
+		final byte[] bytes = new byte[ALIGN_BUFFER_SIZE];
+		long current = position - 1;
+		while (current < end) {
+			final int read = channel.read(ByteBuffer.wrap(bytes, 0, (int) Math.min(bytes.length, end - current)), current);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; ++i) {
+				if (bytes[i] == delimiter) {
+					return current + i + 1;
+				}
+			}
+			current += read;
+		}
+		return end;
+	}
+
+	/**
+	 * Passes every record without its delimiter to the action, as a buffer positioned on the record. The buffer is reused for all records.
+	 */
+	public void forEach(final Consumer<? super ByteBuffer> action) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long position = start;
+			int window = windowSize;
+			while (position < end) {
+				final int length = (int) Math.min(window, end - position);
+				final boolean lastWindow = (position + length == end);
+				final MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				final ByteBuffer record = map.duplicate();
+				int recordStart = 0;
+				for (int i = 0; i < length; ++i) {
+					if (map.get(i) == delimiter) {
+						emit(map, record, recordStart, i, action);
+						recordStart = i + 1;
+					}
+				}
+				if (lastWindow && (recordStart < length)) {
+					emit(map, record, recordStart, length, action);
+					recordStart = length;
+				}
+				if (recordStart > 0) {
+					position += recordStart;
+				} else if (window == Integer.MAX_VALUE) {
+					throw new IOException("Record at " + position + " exceeds the maximum window size");
+				} else { // a single record spans the whole window
+					window = (int) Math.min(Integer.MAX_VALUE, 2L * window);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Passes every record without its delimiter to the action as a character sequence, decoding one byte per character. The sequence is reused for all
+	 * records, call {@link Object#toString()} to keep it.
+	 */
+	public void forEachLine(final Consumer<? super CharSequence> action) throws IOException {
+		final ByteSequence sequence = new ByteSequence();
+		forEach(buffer -> action.accept(sequence.set(buffer, buffer.position(), buffer.remaining())));
+	}
+
+	void emit(final ByteBuffer window, final ByteBuffer record, final int from, int to, final Consumer<? super ByteBuffer> action) {
+		if (stripCarriageReturn && (to > from) && (window.get(to - 1) == '\r')) {
+			--to;
+		}
+		((Buffer) record).limit(to);
+		((Buffer) record).position(from);
+		action.accept(record);
+	}
+
+	/**
+	 * A character view of a part of a byte buffer, mapping each byte to the character of the same value.
+	 */
+	static final class ByteSequence implements CharSequence {
+
+		ByteBuffer buffer;
+		int offset;
+		int length;
+
+		ByteSequence set(final ByteBuffer buffer, final int offset, final int length) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(final int index) {
+			if ((index < 0) || (index >= length)) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+			}
+			return (char) (buffer.get(offset + index) & 0xff);
+		}
+
+		@Override
+		public CharSequence subSequence(final int from, final int to) {
+			if ((from < 0) || (to > length) || (from > to)) {
+				throw new IndexOutOfBoundsException("Range: " + from + " to " + to + ", length: " + length);
+			}
+			return new ByteSequence().set(buffer, offset + from, to - from);
+		}
+
+		@Override
+		public String toString() {
+			final char[] chars = new char[length];
+			for (int i = 0; i < length; ++i) {
+				chars[i] = (char) (buffer.get(offset + i) & 0xff);
+			}
+			return new String(chars);
+		}
+	}
+}
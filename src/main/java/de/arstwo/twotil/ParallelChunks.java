@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Processes indexed chunks of work on an executor with a bounded amount of chunks in flight.
+ * <p>
+ * A new chunk is submitted as soon as a previous one completes, so workers never run idle while chunks are left, and never more than maxInFlight chunks
+ * (and their results) are pending. The first failure cancels all chunks in flight and is rethrown.
+ */
+final class ParallelChunks {
+
+	/**
+	 * Maps all chunks in parallel and returns the results, either in chunk order or in order of completion.
+	 *
+	 * @param <C> chunk type
+	 * @param <R> result type
+	 * @param chunkCount the amount of chunks.
+	 * @param chunks accessor to a chunk by index, called on the worker thread.
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time.
+	 * @param mapper the function to apply to each chunk.
+	 * @param ordered whether or not the results are returned in chunk order.
+	 * @return the mapped results.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the mapper threw an exception for any chunk.
+	 */
+	@SuppressWarnings("unchecked")
+	static <C, R> List<R> map(final int chunkCount, final IntFunction<C> chunks, final Executor executor, final int maxInFlight,
+					final Function<? super C, ? extends R> mapper, final boolean ordered) throws InterruptedException, ExecutionException {
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Maximum chunks in flight must be > 0");
+		}
+		final CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+		final Set<Future<Integer>> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+		final Object[] results = new Object[chunkCount];
+		final List<R> completionOrder = ordered ? null : new ArrayList<>(chunkCount);
+		int submitted = 0;
+		int completed = 0;
+
+		try {
+			while (completed < chunkCount) {
+				while ((submitted < chunkCount) && (submitted - completed < maxInFlight)) {
+					final int index = submitted++;
+					inFlight.add(completionService.submit(() -> {
+						results[index] = mapper.apply(chunks.apply(index));
+						return index;
+					}));
+				}
+				final Future<Integer> done = completionService.take();
+				inFlight.remove(done);
+				final int index = done.get();
+				++completed;
+				if (completionOrder != null) {
+					completionOrder.add((R) results[index]);
+					results[index] = null;
+				}
+			}
+		} finally {
+			for (final Future<Integer> future : inFlight) {
+				future.cancel(true);
+			}
+		}
+
+		return ordered ? (List<R>) Arrays.asList(results) : completionOrder;
+	}
+
+	/**
+	 * Do not instantiate.
+	 */
+	private ParallelChunks() {
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A gzip output stream that compresses blocks of data concurrently, similar to pigz.
+ * <p>
+ * The data is split into fixed-size blocks, and each block is deflated by an independent {@link Deflater} on the given executor. Every block is primed with
+ * the last 32 KiB of the previous block as dictionary, so the compression ratio is close to a single-threaded stream. The blocks are byte-aligned with a sync
+ * flush and written in order, so the result is a single standard gzip member that can be read by any gzip implementation.
+ * <p>
+ * At most maxInFlight blocks are compressed or waiting at the same time, writing blocks when that limit is reached. Not thread-safe.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   try (OutputStream out = new ParallelGzipOutputStream(Files.newOutputStream(target), executor)) {
+ *     Files.copy(source, out);
+ *   }
+ * }
+ * </pre>
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+	private static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+	private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+	final OutputStream out;
+	final Executor executor;
+	final int level;
+	final int blockSize;
+	final int maxInFlight;
+	final Queue<Future<byte[]>> inFlight = new ArrayDeque<>();
+	final CRC32 crc = new CRC32();
+	long totalSize = 0;
+	byte[] block;
+	int blockLength = 0;
+	byte[] dictionary = null;
+	boolean closed = false;
+
+	/**
+	 * Creates a new parallel gzip stream with default compression, 128 KiB blocks and up to two blocks per processor in flight.
+	 *
+	 * @param out the stream to write the compressed data to.
+	 * @param executor the executor to compress the blocks on.
+	 * @throws IOException if the header could not be written.
+	 */
+	public ParallelGzipOutputStream(final OutputStream out, final Executor executor) throws IOException {
+		this(out, executor, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new parallel gzip stream.
+	 *
+	 * @param out the stream to write the compressed data to.
+	 * @param executor the executor to compress the blocks on.
+	 * @param level the compression level, see {@link Deflater}.
+	 * @param blockSize the amount of uncompressed bytes per block.
+	 * @param maxInFlight the maximum amount of blocks compressed at the same time.
+	 * @throws IOException if the header could not be written.
+	 */
+	public ParallelGzipOutputStream(final OutputStream out, final Executor executor, final int level, final int blockSize, final int maxInFlight)
+					throws IOException {
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("Block size must be > 0");
+		}
+		if (maxInFlight <= 0) {
+			throw new IllegalArgumentException("Maximum blocks in flight must be > 0");
+		}
+		this.out = out;
+		this.executor = executor;
+		this.level = level;
+		this.blockSize = blockSize;
+		this.maxInFlight = maxInFlight;
+		this.block = new byte[blockSize];
+		out.write(HEADER);
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		ensureOpen();
+		block[blockLength++] = (byte) b;
+		if (blockLength == blockSize) {
+			submitBlock(false);
+		}
+	}
+
+	@Override
+	public void write(final byte[] data, int offset, int length) throws IOException {
+		ensureOpen();
+		while (length > 0) {
+			final int count = Math.min(length, blockSize - blockLength);
+			System.arraycopy(data, offset, block, blockLength, count);
+			blockLength += count;
+			offset += count;
+			length -= count;
+			if (blockLength == blockSize) {
+				submitBlock(false);
+			}
+		}
+	}
+
+	/**
+	 * Waits for all blocks submitted so far and writes them out. Data that does not fill a whole block yet is kept.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		while (!inFlight.isEmpty()) {
+			writeNextBlock();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Compresses the remaining data, writes the gzip trailer and closes the underlying stream.
+	 *
+	 * @throws IOException if writing failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			submitBlock(true);
+			while (!inFlight.isEmpty()) {
+				writeNextBlock();
+			}
+			writeIntLE((int) crc.getValue());
+			writeIntLE((int) totalSize);
+			out.flush();
+		} finally {
+			out.close();
+		}
+	}
+
+	void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	void submitBlock(final boolean last) throws IOException {
+		final byte[] data = block;
+		final int length = blockLength;
+		final byte[] blockDictionary = dictionary;
+		crc.update(data, 0, length);
+		totalSize += length;
+		if (!last) {
+			dictionary = (length >= DICTIONARY_SIZE) ? Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length) : null;
+			block = new byte[blockSize];
+			blockLength = 0;
+		}
+		inFlight.add(CompletableFuture.supplyAsync(() -> deflate(data, length, blockDictionary, last), executor));
+		while (inFlight.size() >= maxInFlight) {
+			writeNextBlock();
+		}
+	}
+
+	void writeNextBlock() throws IOException {
+		try {
+			out.write(inFlight.remove().get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for compression");
+		} catch (ExecutionException e) {
+			throw new IOException("Compression failed", e.getCause());
+		}
+	}
+
+	byte[] deflate(final byte[] data, final int length, final byte[] blockDictionary, final boolean last) {
+		final Deflater deflater = new Deflater(level, true);
+		try {
+			if (blockDictionary != null) {
+				deflater.setDictionary(blockDictionary);
+			}
+			deflater.setInput(data, 0, length);
+			final ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+			final byte[] buffer = new byte[64 * 1024];
+			if (last) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					result.write(buffer, 0, deflater.deflate(buffer));
+				}
+			} else { // a sync flush ends the block on a byte boundary, so the next block can be appended directly
+				int written;
+				do {
+					written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+					result.write(buffer, 0, written);
+				} while (written == buffer.length);
+			}
+			return result.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	void writeIntLE(final int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >>> 8) & 0xff);
+		out.write((value >>> 16) & 0xff);
+		out.write((value >>> 24) & 0xff);
+	}
+}
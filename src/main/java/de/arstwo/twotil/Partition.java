@@ -15,9 +15,26 @@
  */
 package de.arstwo.twotil;
 
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Separates a given list into smaller chunks (partitions).
@@ -35,27 +52,354 @@ import java.util.List;
  *   }
  * }
  * </pre>
+ * <p>
+ * Sources of unknown size, like database cursors or file readers, can be partitioned lazily with {@link #chunked(Iterator, int) chunked}:
+ * <pre>{@code
+ *   try (Stream<String> lines = Files.lines(myHugeTextFile)) {
+ *     Partition.chunked(lines, 500).forEach(myDB::insertBatch);
+ *   }
+ * }
+ * </pre>
  */
 public final class Partition<T> extends AbstractList<List<T>> {
 
 	/**
-	 * Creates a partitioned view of a given list with a given chunk size.
+	 * Creates a partitioned snapshot of a given list with a given chunk size.
+	 * <p>
+	 * The source data is copied, and every chunk returned is a copy as well, so neither changes to the source nor to the chunks affect each other.
 	 *
 	 * @param <T> any
 	 * @param list the source data
 	 * @param chunkSize how many items are in each partition.
-	 * @return a partitioned view of the source data.
+	 * @return a partitioned snapshot of the source data.
 	 */
 	public static <T> Partition<T> of(final List<T> list, final int chunkSize) {
-		return new Partition<>(list, chunkSize);
+		return new Partition<>(new ArrayList<>(list), chunkSize, true);
+	}
+
+	/**
+	 * Creates a partitioned view of a given list with a given chunk size, without copying any data.
+	 * <p>
+	 * Every chunk is a {@link List#subList(int, int) subList} view of the source, so changes to the source are visible in the chunks, and structural changes
+	 * of the source invalidate the partition. Sources that do not implement {@link RandomAccess} are copied once, as sub lists of them are slow to access.
+	 *
+	 * @param <T> any
+	 * @param list the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a partitioned view of the source data.
+	 */
+	public static <T> Partition<T> view(final List<T> list, final int chunkSize) {
+		return new Partition<>((list instanceof RandomAccess) ? list : new ArrayList<>(list), chunkSize, false);
+	}
+
+	/**
+	 * Creates a partitioned view of a given list with one chunk per available processor, see {@link #intoParts(List, int)}.
+	 *
+	 * @param <T> any
+	 * @param list the source data
+	 * @return a partitioned view of the source data.
+	 */
+	public static <T> Partition<T> intoParts(final List<T> list) {
+		return intoParts(list, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a partitioned view of a given list with exactly the given amount of chunks, whose sizes differ by at most one.
+	 * <p>
+	 * Useful to split CPU-bound work evenly among a given amount of workers. If the list has fewer items than parts, the remaining chunks are empty. Chunks are
+	 * views of the source like with {@link #view(List, int) view}.
+	 *
+	 * @param <T> any
+	 * @param list the source data
+	 * @param parts the amount of chunks.
+	 * @return a partitioned view of the source data.
+	 */
+	public static <T> Partition<T> intoParts(final List<T> list, final int parts) {
+		if (parts <= 0) {
+			throw new IllegalArgumentException("Amount of parts must be > 0");
+		}
+		final List<T> source = (list instanceof RandomAccess) ? list : new ArrayList<>(list);
+		final int baseSize = source.size() / parts;
+		final int remainder = source.size() % parts;
+		final int[] offsets = new int[parts + 1];
+		for (int i = 1; i <= parts; ++i) {
+			// the first chunks get one additional item each until the remainder is used up
+			offsets[i] = offsets[i - 1] + baseSize + ((i <= remainder) ? 1 : 0);
+		}
+		return new Partition<>(source, offsets, false);
+	}
+
+	/**
+	 * Creates an iterator over chunks of a given list, whose size adapts so that processing each chunk takes about the target duration.
+	 *
+	 * @param <T> any
+	 * @param list the source data
+	 * @param initialChunkSize how many items are in the first chunk.
+	 * @param targetAmount The amount of the specified unit each chunk should take to process.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return an iterator over adaptively sized chunks.
+	 * @see AdaptivePartition
+	 */
+	public static <T> AdaptivePartition<T> adaptive(final List<T> list, final int initialChunkSize, final long targetAmount, final TemporalUnit unit) {
+		return adaptive(list, initialChunkSize, 1, Integer.MAX_VALUE, targetAmount, unit);
+	}
+
+	/**
+	 * Creates an iterator over chunks of a given list, whose size adapts so that processing each chunk takes about the target duration, within the given
+	 * bounds.
+	 *
+	 * @param <T> any
+	 * @param list the source data
+	 * @param initialChunkSize how many items are in the first chunk.
+	 * @param minChunkSize the minimum amount of items in each chunk, except the last.
+	 * @param maxChunkSize the maximum amount of items in each chunk.
+	 * @param targetAmount The amount of the specified unit each chunk should take to process.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return an iterator over adaptively sized chunks.
+	 * @see AdaptivePartition
+	 */
+	public static <T> AdaptivePartition<T> adaptive(final List<T> list, final int initialChunkSize, final int minChunkSize, final int maxChunkSize,
+					final long targetAmount, final TemporalUnit unit) {
+		return new AdaptivePartition<>(list, initialChunkSize, minChunkSize, maxChunkSize, IntervalChecker.toDuration(targetAmount, unit).toNanos());
+	}
+
+	/**
+	 * Lazily partitions the elements of an iterator into chunks of the given size. Only one chunk is held in memory at a time.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a sequential stream of chunks.
+	 */
+	public static <T> Stream<List<T>> chunked(final Iterator<T> source, final int chunkSize) {
+		return chunked(source, chunkSize, false);
+	}
+
+	/**
+	 * Lazily partitions the elements of an iterator into chunks of the given size.
+	 * <p>
+	 * If reuseBuffer is true, every chunk is the same list that is cleared and refilled for the next chunk. This avoids any allocation per chunk, but the
+	 * chunks must not be kept or used after the next chunk has been requested.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @param reuseBuffer whether or not all chunks are the same list instance.
+	 * @return a sequential stream of chunks.
+	 */
+	public static <T> Stream<List<T>> chunked(final Iterator<T> source, final int chunkSize, final boolean reuseBuffer) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be > 0");
+		}
+		return StreamSupport.stream(new ChunkSpliterator<>(source, e -> 1, chunkSize, chunkSize, reuseBuffer ? new ArrayList<>(chunkSize) : null), false);
+	}
+
+	/**
+	 * Lazily partitions the elements of an iterable into chunks of the given size. Only one chunk is held in memory at a time.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a sequential stream of chunks.
+	 */
+	public static <T> Stream<List<T>> chunked(final Iterable<T> source, final int chunkSize) {
+		return chunked(source.iterator(), chunkSize, false);
+	}
+
+	/**
+	 * Lazily partitions the elements of an iterable into chunks of the given size.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @param reuseBuffer whether or not all chunks are the same list instance, see {@link #chunked(Iterator, int, boolean)}.
+	 * @return a sequential stream of chunks.
+	 */
+	public static <T> Stream<List<T>> chunked(final Iterable<T> source, final int chunkSize, final boolean reuseBuffer) {
+		return chunked(source.iterator(), chunkSize, reuseBuffer);
+	}
+
+	/**
+	 * Lazily partitions the elements of a stream into chunks of the given size. Only one chunk is held in memory at a time. Closing the returned stream
+	 * closes the source stream.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @return a sequential stream of chunks.
+	 */
+	public static <T> Stream<List<T>> chunked(final Stream<T> source, final int chunkSize) {
+		return chunked(source, chunkSize, false);
+	}
+
+	/**
+	 * Lazily partitions the elements of a stream into chunks of the given size. Closing the returned stream closes the source stream.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param chunkSize how many items are in each partition.
+	 * @param reuseBuffer whether or not all chunks are the same list instance, see {@link #chunked(Iterator, int, boolean)}.
+	 * @return a sequential stream of chunks.
+	 */
+	public static <T> Stream<List<T>> chunked(final Stream<T> source, final int chunkSize, final boolean reuseBuffer) {
+		return chunked(source.iterator(), chunkSize, reuseBuffer).onClose(source::close);
+	}
+
+	/**
+	 * Creates a partitioned view of a given list, where each chunk holds as many items as fit into the given maximum weight.
+	 * <p>
+	 * Items are packed greedily in list order: a new chunk is started when the next item would exceed the maximum weight. An item that is heavier than the
+	 * maximum weight on its own is put into a chunk of its own. The chunk boundaries are computed once in a single pass, so accessing a chunk is O(1).
+	 * <p>
+	 * Chunks are views of the source like with {@link #view(List, int) view}.
+	 *
+	 * @param <T> any
+	 * @param list the source data
+	 * @param weigher the function to compute the weight of an item, for example its size in bytes. Must not be negative.
+	 * @param maxWeight the maximum total weight of the items in each partition.
+	 * @return a partitioned view of the source data.
+	 */
+	public static <T> Partition<T> byWeight(final List<T> list, final ToLongFunction<? super T> weigher, final long maxWeight) {
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException("Maximum weight must be > 0");
+		}
+		final List<T> source = (list instanceof RandomAccess) ? list : new ArrayList<>(list);
+		int[] offsets = new int[16];
+		int chunks = 0;
+		long chunkWeight = 0;
+		for (int i = 0; i < source.size(); ++i) {
+			final long weight = weigh(weigher, source.get(i));
+			if ((i == 0) || (chunkWeight + weight > maxWeight)) {
+				if (chunks + 1 >= offsets.length) {
+					offsets = Arrays.copyOf(offsets, offsets.length * 2);
+				}
+				offsets[chunks++] = i;
+				chunkWeight = 0;
+			}
+			chunkWeight += weight;
+		}
+		offsets[chunks] = source.size();
+		return new Partition<>(source, Arrays.copyOf(offsets, chunks + 1), false);
+	}
+
+	/**
+	 * Lazily partitions the elements of an iterator into chunks, where each chunk holds as many items as fit into the given maximum weight. Only one chunk
+	 * is held in memory at a time.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param weigher the function to compute the weight of an item, for example its size in bytes. Must not be negative.
+	 * @param maxWeight the maximum total weight of the items in each partition.
+	 * @return a sequential stream of chunks.
+	 * @see #byWeight(List, ToLongFunction, long)
+	 */
+	public static <T> Stream<List<T>> chunkedByWeight(final Iterator<T> source, final ToLongFunction<? super T> weigher, final long maxWeight) {
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException("Maximum weight must be > 0");
+		}
+		return StreamSupport.stream(new ChunkSpliterator<>(source, weigher, maxWeight, 0, null), false);
+	}
+
+	/**
+	 * Lazily partitions the elements of a stream into chunks, where each chunk holds as many items as fit into the given maximum weight. Only one chunk is
+	 * held in memory at a time. Closing the returned stream closes the source stream.
+	 *
+	 * @param <T> any
+	 * @param source the source data
+	 * @param weigher the function to compute the weight of an item, for example its size in bytes. Must not be negative.
+	 * @param maxWeight the maximum total weight of the items in each partition.
+	 * @return a sequential stream of chunks.
+	 * @see #byWeight(List, ToLongFunction, long)
+	 */
+	public static <T> Stream<List<T>> chunkedByWeight(final Stream<T> source, final ToLongFunction<? super T> weigher, final long maxWeight) {
+		return chunkedByWeight(source.iterator(), weigher, maxWeight).onClose(source::close);
+	}
+
+	/**
+	 * Distributes the items of a collection into the given amount of shards by their key, so all items with the same key end up in the same shard.
+	 * <p>
+	 * The items are counted per shard in a first pass and then scattered into a single presized array in a second pass, so no list is ever resized. Each
+	 * shard keeps the iteration order of the collection. The returned partition always has exactly {@code shards} chunks, some of which might be empty.
+	 *
+	 * @param <T> any
+	 * @param collection the source data
+	 * @param keyFunction the function to determine the key of an item. Keys must implement hashCode properly.
+	 * @param shards the amount of shards.
+	 * @return a partition with one chunk per shard.
+	 * @see #shardOf(Object, int)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Partition<T> byKey(final Collection<T> collection, final Function<? super T, ?> keyFunction, final int shards) {
+		if (shards <= 0) {
+			throw new IllegalArgumentException("Amount of shards must be > 0");
+		}
+		final Object[] items = collection.toArray();
+		final int[] itemShards = new int[items.length];
+		final int[] offsets = new int[shards + 1];
+		for (int i = 0; i < items.length; ++i) {
+			final int shard = shardOf(keyFunction.apply((T) items[i]), shards);
+			itemShards[i] = shard;
+			++offsets[shard + 1];
+		}
+		for (int shard = 1; shard <= shards; ++shard) {
+			offsets[shard] += offsets[shard - 1];
+		}
+
+		final Object[] scattered = new Object[items.length];
+		final int[] nextIndex = Arrays.copyOf(offsets, shards);
+		for (int i = 0; i < items.length; ++i) {
+			scattered[nextIndex[itemShards[i]]++] = items[i];
+		}
+		return new Partition<>((List<T>) Arrays.asList(scattered), offsets, false);
+	}
+
+	/**
+	 * Returns the shard a given key is assigned to by {@link #byKey(Collection, Function, int) byKey}. Useful to route single items to the same worker as the
+	 * corresponding shard.
+	 *
+	 * @param key any key, can be null.
+	 * @param shards the amount of shards.
+	 * @return the shard index within <0,shards-1>.
+	 */
+	public static int shardOf(final Object key, final int shards) {
+		final int h = Objects.hashCode(key);
+		return Math.floorMod(h ^ (h >>> 16), shards);
+	}
+
+	static <T> long weigh(final ToLongFunction<? super T> weigher, final T item) {
+		final long result = weigher.applyAsLong(item);
+		if (result < 0) {
+			throw new IllegalArgumentException("Weight must be >= 0");
+		}
+		return result;
 	}
 
 	private final List<T> list;
+	/**
+	 * Size of all chunks for evenly sized partitions, only used if offsets is null.
+	 */
 	private final int chunkSize;
+	/**
+	 * Start index of every chunk in the source list, followed by the size of the list.
+	 */
+	private final int[] offsets;
+	private final boolean copyChunks;
 
-	private Partition(final List<T> list, final int chunkSize) {
-		this.list = new ArrayList<>(list);
+	private Partition(final List<T> list, final int chunkSize, final boolean copyChunks) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be > 0");
+		}
+		this.list = list;
 		this.chunkSize = chunkSize;
+		this.offsets = null;
+		this.copyChunks = copyChunks;
+	}
+
+	private Partition(final List<T> list, final int[] offsets, final boolean copyChunks) {
+		this.list = list;
+		this.chunkSize = 0;
+		this.offsets = offsets;
+		this.copyChunks = copyChunks;
 	}
 
 	/**
@@ -66,18 +410,219 @@ public final class Partition<T> extends AbstractList<List<T>> {
 	 */
 	@Override
 	public List<T> get(int index) {
-		final int start = index * chunkSize;
-		final int end = Math.min(start + chunkSize, list.size());
-
-		if (start > end) {
+		if ((index < 0) || (index >= size())) {
 			throw new IndexOutOfBoundsException("Index " + index + " is out of the partition's range <0," + (size() - 1) + ">");
 		}
 
-		return new ArrayList<>(list.subList(start, end));
+		final int start;
+		final int end;
+		if (offsets == null) {
+			start = index * chunkSize;
+			end = Math.min(start + chunkSize, list.size());
+		} else {
+			start = offsets[index];
+			end = offsets[index + 1];
+		}
+		final List<T> chunk = list.subList(start, end);
+		return copyChunks ? new ArrayList<>(chunk) : chunk;
+	}
+
+	/**
+	 * Processes all chunks in parallel on the given executor.
+	 * <p>
+	 * At most maxInFlight chunks are submitted at the same time, a new chunk is submitted as soon as one completes. If the action throws an exception for any
+	 * chunk, all chunks in flight are cancelled and the first failure is rethrown.
+	 *
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time, usually the amount of workers of the executor.
+	 * @param action the action to perform for each chunk.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the action threw an exception for any chunk.
+	 */
+	public void parallelForEach(final Executor executor, final int maxInFlight, final Consumer<? super List<T>> action)
+					throws InterruptedException, ExecutionException {
+		ParallelChunks.map(size(), this::get, executor, maxInFlight, chunk -> {
+			action.accept(chunk);
+			return null;
+		}, false);
+	}
+
+	/**
+	 * Maps all chunks in parallel on the given executor, and returns the results in chunk order.
+	 *
+	 * @param <R> any
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time, usually the amount of workers of the executor.
+	 * @param mapper the function to apply to each chunk.
+	 * @return the results of all chunks, in chunk order.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the mapper threw an exception for any chunk.
+	 * @see #parallelForEach(Executor, int, Consumer)
+	 */
+	public <R> List<R> parallelMap(final Executor executor, final int maxInFlight, final Function<? super List<T>, ? extends R> mapper)
+					throws InterruptedException, ExecutionException {
+		return parallelMap(executor, maxInFlight, mapper, true);
+	}
+
+	/**
+	 * Maps all chunks in parallel on the given executor, and returns the results either in chunk order or in order of completion.
+	 *
+	 * @param <R> any
+	 * @param executor the executor to run the chunks on.
+	 * @param maxInFlight the maximum amount of chunks submitted at the same time, usually the amount of workers of the executor.
+	 * @param mapper the function to apply to each chunk.
+	 * @param ordered true to return the results in chunk order, false to return them in order of completion.
+	 * @return the results of all chunks.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 * @throws ExecutionException if the mapper threw an exception for any chunk.
+	 * @see #parallelForEach(Executor, int, Consumer)
+	 */
+	public <R> List<R> parallelMap(final Executor executor, final int maxInFlight, final Function<? super List<T>, ? extends R> mapper,
+					final boolean ordered) throws InterruptedException, ExecutionException {
+		return ParallelChunks.map(size(), this::get, executor, maxInFlight, mapper, ordered);
+	}
+
+	/**
+	 * Returns a partition with the same chunks that is isolated from the source data, as if created with {@link #of(List, int)}.
+	 *
+	 * @return a partitioned snapshot of the current source data.
+	 */
+	public Partition<T> snapshot() {
+		return (offsets == null)
+						? new Partition<>(new ArrayList<>(list), chunkSize, true)
+						: new Partition<>(new ArrayList<>(list), offsets, true);
 	}
 
 	@Override
 	public int size() {
-		return (int) Math.ceil((double) list.size() / (double) chunkSize);
+		return (offsets == null)
+						? (int) Math.ceil((double) list.size() / (double) chunkSize)
+						: offsets.length - 1;
+	}
+
+	/**
+	 * Creates a spliterator that splits on chunk boundaries into halves of equal chunk count, so parallel streams over a partition distribute the chunks
+	 * evenly among workers. Chunks are only created when they are processed.
+	 *
+	 * @return a spliterator over all chunks.
+	 */
+	@Override
+	public Spliterator<List<T>> spliterator() {
+		return new RangeSpliterator<>(this::get, 0, size());
+	}
+
+	/**
+	 * Collects the elements of an iterator into chunks of a maximum weight on demand. Chunks of a fixed size are chunks where every item weighs 1, they are
+	 * presized and handed out as soon as they are full, without waiting for the next item.
+	 */
+	static final class ChunkSpliterator<T> extends Spliterators.AbstractSpliterator<List<T>> {
+
+		final Iterator<T> source;
+		final ToLongFunction<? super T> weigher;
+		final long maxWeight;
+		final int fixedSize;
+		final List<T> buffer;
+		// an item that did not fit into the previous chunk anymore
+		T pending;
+		long pendingWeight;
+		boolean hasPending = false;
+
+		ChunkSpliterator(final Iterator<T> source, final ToLongFunction<? super T> weigher, final long maxWeight, final int fixedSize, final List<T> buffer) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.source = source;
+			this.weigher = weigher;
+			this.maxWeight = maxWeight;
+			this.fixedSize = fixedSize;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super List<T>> action) {
+			if (!hasPending && !source.hasNext()) {
+				return false;
+			}
+			final List<T> chunk;
+			if (buffer == null) {
+				chunk = (fixedSize > 0) ? new ArrayList<>(fixedSize) : new ArrayList<>();
+			} else {
+				chunk = buffer;
+				chunk.clear();
+			}
+			long chunkWeight = 0;
+			if (hasPending) {
+				chunk.add(pending);
+				chunkWeight = pendingWeight;
+				pending = null;
+				hasPending = false;
+			}
+			while (((fixedSize == 0) || (chunk.size() < fixedSize)) && source.hasNext()) {
+				final T item = source.next();
+				final long weight = weigh(weigher, item);
+				if (!chunk.isEmpty() && (chunkWeight + weight > maxWeight)) {
+					pending = item;
+					pendingWeight = weight;
+					hasPending = true;
+					break;
+				}
+				chunk.add(item);
+				chunkWeight += weight;
+			}
+			action.accept(chunk);
+			return true;
+		}
+	}
+
+	/**
+	 * Splits a range of chunk indices in halves, chunks are retrieved by index when processed.
+	 */
+	static final class RangeSpliterator<C> implements Spliterator<C> {
+
+		final IntFunction<C> chunks;
+		int index;
+		final int end;
+
+		RangeSpliterator(final IntFunction<C> chunks, final int start, final int end) {
+			this.chunks = chunks;
+			this.index = start;
+			this.end = end;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super C> action) {
+			if (index < end) {
+				action.accept(chunks.apply(index++));
+				return true;
+			} else {
+				return false;
+			}
+		}
+
+		@Override
+		public void forEachRemaining(final Consumer<? super C> action) {
+			while (index < end) {
+				action.accept(chunks.apply(index++));
+			}
+		}
+
+		@Override
+		public Spliterator<C> trySplit() {
+			final int middle = (index + end) >>> 1;
+			if (middle <= index) {
+				return null;
+			}
+			final Spliterator<C> prefix = new RangeSpliterator<>(chunks, index, middle);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return end - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+		}
 	}
 }
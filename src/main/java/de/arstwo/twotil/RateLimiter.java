@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free token bucket that hands out a given amount of permits per time interval, with optional bursts.
+ * <p>
+ * Where an {@link IntervalChecker} allows at most one execution per interval, this class allows N executions per interval. Permits are refilled
+ * continuously, so a limiter with 10 permits per second hands out a new permit every 100ms. Up to {@code burst} unused permits are stored for later use.
+ * <p>
+ * The whole bucket state is a single long - the point in time at which the bucket will be full again - that is updated with one compare-and-set. Time is
+ * measured with {@link System#nanoTime()}, no objects are allocated.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   RateLimiter limiter = RateLimiter.of(100, 1, ChronoUnit.SECONDS);
+ *   if (limiter.tryAcquire()) {
+ *     // Do the task...
+ *   }
+ *   // alternatively:
+ *   limiter.executeIfPermitted(myTask::run);
+ * }
+ * </pre>
+ */
+public final class RateLimiter {
+
+	/**
+	 * Creates a new RateLimiter that hands out the given amount of permits per interval. Up to {@code permits} permits can be acquired in a burst. The
+	 * returned limiter starts with a full bucket.
+	 *
+	 * @param permits how many permits are available per interval.
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return A RateLimiter with the specified rate.
+	 */
+	public static RateLimiter of(final long permits, final long amount, final TemporalUnit unit) {
+		return of(permits, permits, amount, unit);
+	}
+
+	/**
+	 * Creates a new RateLimiter that hands out the given amount of permits per interval, and stores up to {@code burst} unused permits. The returned limiter
+	 * starts with a full bucket.
+	 *
+	 * @param permits how many permits are available per interval.
+	 * @param burst the maximum amount of permits that can be acquired at once.
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return A RateLimiter with the specified rate.
+	 */
+	public static RateLimiter of(final long permits, final long burst, final long amount, final TemporalUnit unit) {
+		if (permits <= 0) {
+			throw new IllegalArgumentException("Amount of permits must be > 0");
+		}
+		if (burst <= 0) {
+			throw new IllegalArgumentException("Burst size must be > 0");
+		}
+		final long intervalNanos = IntervalChecker.toDuration(amount, unit).toNanos();
+		return new RateLimiter(Math.max(1, intervalNanos / permits), burst);
+	}
+
+	final long nanosPerPermit;
+	final long burst;
+	final long burstNanos;
+	/**
+	 * The point in time at which all permits handed out so far have been refilled.
+	 */
+	final AtomicLong fullAt;
+
+	private RateLimiter(final long nanosPerPermit, final long burst) {
+		this.nanosPerPermit = nanosPerPermit;
+		this.burst = burst;
+		this.burstNanos = nanosPerPermit * burst;
+		this.fullAt = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 * Returns how long the caller would have to wait to acquire the permits, based on the given bucket state.
+	 */
+	long waitTime(final long currentFullAt, final long now, final int permits) {
+		return nextFullAt(currentFullAt, now, permits) - burstNanos - now;
+	}
+
+	long nextFullAt(final long currentFullAt, final long now, final int permits) {
+		return ((currentFullAt - now < 0) ? now : currentFullAt) + permits * nanosPerPermit;
+	}
+
+	void checkPermits(final int permits) {
+		if ((permits <= 0) || (permits > burst)) {
+			throw new IllegalArgumentException("Amount of permits must be within <1," + burst + ">");
+		}
+	}
+
+	/**
+	 * Tries to acquire a single permit without waiting.
+	 *
+	 * @return true if the permit was acquired, otherwise false.
+	 */
+	public boolean tryAcquire() {
+		return tryAcquire(1);
+	}
+
+	/**
+	 * Tries to acquire the given amount of permits without waiting. Either all or none of the permits are acquired.
+	 *
+	 * @param permits the amount of permits to acquire, at most the burst size of this limiter.
+	 * @return true if the permits were acquired, otherwise false.
+	 */
+	public boolean tryAcquire(final int permits) {
+		checkPermits(permits);
+		final long now = System.nanoTime();
+		long current;
+
+		do {
+			current = fullAt.get();
+			if (waitTime(current, now, permits) > 0) {
+				return false;
+			}
+		} while (!fullAt.compareAndSet(current, nextFullAt(current, now, permits)));
+
+		return true;
+	}
+
+	/**
+	 * Acquires a single permit, parks the current thread until one is available.
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException {
+		acquire(1);
+	}
+
+	/**
+	 * Acquires the given amount of permits, parks the current thread until they are available.
+	 *
+	 * @param permits the amount of permits to acquire, at most the burst size of this limiter.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public void acquire(final int permits) throws InterruptedException {
+		checkPermits(permits);
+		while (true) {
+			final long now = System.nanoTime();
+			final long current = fullAt.get();
+			final long waitTime = waitTime(current, now, permits);
+
+			if (waitTime <= 0) {
+				if (fullAt.compareAndSet(current, nextFullAt(current, now, permits))) {
+					return;
+				}
+			} else {
+				LockSupport.parkNanos(this, waitTime);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Executes the specified operation if a permit is available.
+	 *
+	 * @param task The task to be performed.
+	 * @return true if a permit was available, otherwise false.
+	 */
+	public boolean executeIfPermitted(final Runnable task) {
+		if (tryAcquire()) {
+			task.run();
+			return true;
+		} else {
+			return false;
+		}
+	}
+}
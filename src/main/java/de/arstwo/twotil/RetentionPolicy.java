@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.TemporalUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides which files of a directory to keep when cleaning up with {@link FileUtil#deleteRecursively(java.nio.file.Path, RetentionPolicy,
+ * java.util.concurrent.ForkJoinPool)}.
+ * <p>
+ * The rules are applied to the files of each directory separately, newest first:
+ * <ul>
+ * <li>the newest N files are always kept.</li>
+ * <li>other files are kept if they are newer than the given age, or if there is no age rule but a size rule.</li>
+ * <li>kept files are counted against the size cap, and once it is exceeded all older files are deleted.</li>
+ * </ul>
+ * A policy without rules keeps nothing. Policies are immutable, every rule returns a new policy.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   RetentionPolicy policy = RetentionPolicy.none().keepNewest(3).keepNewerThan(7, ChronoUnit.DAYS).keepAtMostBytes(1L << 30);
+ *   DeletionSummary summary = FileUtil.deleteRecursively(logDir, policy, ForkJoinPool.commonPool());
+ * }
+ * </pre>
+ */
+public final class RetentionPolicy {
+
+	private static final RetentionPolicy NONE = new RetentionPolicy(0, null, null, -1);
+
+	/**
+	 * Returns a policy that keeps nothing, to add rules to.
+	 */
+	public static RetentionPolicy none() {
+		return NONE;
+	}
+
+	private final int keepNewest;
+	private final Duration maxAge;
+	private final Clock clock;
+	private final long maxBytes;
+
+	private RetentionPolicy(final int keepNewest, final Duration maxAge, final Clock clock, final long maxBytes) {
+		this.keepNewest = keepNewest;
+		this.maxAge = maxAge;
+		this.clock = clock;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Always keeps the given amount of newest files per directory, regardless of the other rules.
+	 */
+	public RetentionPolicy keepNewest(final int amount) {
+		if (amount < 0) {
+			throw new IllegalArgumentException("Amount of files must be >= 0");
+		}
+		return new RetentionPolicy(amount, maxAge, clock, maxBytes);
+	}
+
+	/**
+	 * Keeps files last modified within the given time frame.
+	 */
+	public RetentionPolicy keepNewerThan(final long amount, final TemporalUnit unit) {
+		return keepNewerThan(amount, unit, Clock.systemUTC());
+	}
+
+	/**
+	 * Keeps files last modified within the given time frame, measured from the current time of the given clock.
+	 */
+	public RetentionPolicy keepNewerThan(final long amount, final TemporalUnit unit, final Clock clock) {
+		return new RetentionPolicy(keepNewest, IntervalChecker.toDuration(amount, unit), clock, maxBytes);
+	}
+
+	/**
+	 * Caps the total size of the kept files per directory, deleting the oldest files first.
+	 */
+	public RetentionPolicy keepAtMostBytes(final long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Amount of bytes must be >= 0");
+		}
+		return new RetentionPolicy(keepNewest, maxAge, clock, bytes);
+	}
+
+	/**
+	 * Returns the instant before which files are too old, or null if there is no age rule. Evaluated once per cleanup run.
+	 */
+	Instant threshold() {
+		return (maxAge == null) ? null : Instant.now(clock).minus(maxAge);
+	}
+
+	/**
+	 * Returns the indexes of the files of one directory that should be deleted.
+	 */
+	BitSet expired(final List<BasicFileAttributes> attributes, final Instant threshold) {
+		final Integer[] newestFirst = new Integer[attributes.size()];
+		Arrays.setAll(newestFirst, i -> i);
+		Arrays.sort(newestFirst, Comparator.comparing((Integer i) -> attributes.get(i).lastModifiedTime()).reversed());
+
+		final BitSet result = new BitSet(newestFirst.length);
+		long keptBytes = 0;
+		boolean budgetExceeded = false;
+		for (int rank = 0; rank < newestFirst.length; ++rank) {
+			final BasicFileAttributes file = attributes.get(newestFirst[rank]);
+			boolean keep;
+			if (rank < keepNewest) {
+				keep = true;
+			} else {
+				keep = (threshold != null) ? !file.lastModifiedTime().toInstant().isBefore(threshold) : (maxBytes >= 0);
+				if (keep && (maxBytes >= 0)) {
+					budgetExceeded |= (keptBytes + file.size() > maxBytes);
+					keep = !budgetExceeded;
+				}
+			}
+			if (keep) {
+				keptBytes += file.size();
+			} else {
+				result.set(newestFirst[rank]);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executes a large amount of periodic tasks from a single driver thread, using a hashed timing wheel.
+ * <p>
+ * This replaces loops that poll many {@link IntervalChecker IntervalCheckers} just to find the few that are due. Tasks are sorted into the buckets of a wheel
+ * by their next due time, and on every tick only the tasks of the current bucket are looked at. The cost per tick is therefore proportional to the tasks
+ * that are due, not to the tasks that are registered. Scheduling and cancellation are O(1).
+ * <p>
+ * Tasks follow the semantics of an {@link IntervalChecker}: a newly scheduled task is due immediately, afterwards it is executed again once the interval has
+ * passed since its last execution. Execution times are rounded up to the next tick of the wheel.
+ * <p>
+ * Tasks run on the driver thread, so they should be short or hand over to an executor. A task that throws an exception is cancelled and the exception is
+ * forwarded to the uncaught exception handler of the driver thread.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   TimingWheel wheel = TimingWheel.start(10, ChronoUnit.MILLIS);
+ *   TimingWheel.Task refresh = wheel.schedule(session::refresh, 5, ChronoUnit.MINUTES);
+ *   // ...
+ *   refresh.cancel();
+ * }
+ * </pre>
+ */
+public final class TimingWheel implements AutoCloseable {
+
+	private static final int DEFAULT_WHEEL_SIZE = 512;
+
+	/**
+	 * Creates and starts a new timing wheel with the given tick duration, running on a daemon thread.
+	 *
+	 * @param tickAmount The amount of the specified unit per tick.
+	 * @param tickUnit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return the running timing wheel.
+	 */
+	public static TimingWheel start(final long tickAmount, final TemporalUnit tickUnit) {
+		return start(tickAmount, tickUnit, DEFAULT_WHEEL_SIZE, r -> {
+			final Thread result = new Thread(r, "TimingWheel");
+			result.setDaemon(true);
+			return result;
+		});
+	}
+
+	/**
+	 * Creates and starts a new timing wheel.
+	 *
+	 * @param tickAmount The amount of the specified unit per tick.
+	 * @param tickUnit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @param wheelSize the amount of buckets in the wheel, rounded up to a power of two. Tasks with an interval longer than one revolution of the wheel are
+	 * skipped for the necessary amount of revolutions.
+	 * @param threadFactory the factory to create the driver thread with.
+	 * @return the running timing wheel.
+	 */
+	public static TimingWheel start(final long tickAmount, final TemporalUnit tickUnit, final int wheelSize, final ThreadFactory threadFactory) {
+		if ((wheelSize <= 0) || (wheelSize > (1 << 30))) {
+			throw new IllegalArgumentException("Wheel size must be within <1," + (1 << 30) + ">");
+		}
+		final TimingWheel result = new TimingWheel(IntervalChecker.toDuration(tickAmount, tickUnit).toNanos(), wheelSize);
+		result.driver = threadFactory.newThread(result::run);
+		result.driver.start();
+		return result;
+	}
+
+	final long tickNanos;
+	final Bucket[] wheel;
+	final int mask;
+	final Queue<Task> scheduled = new ConcurrentLinkedQueue<>();
+	final Queue<Task> cancelled = new ConcurrentLinkedQueue<>();
+	volatile boolean running = true;
+	Thread driver;
+	long currentTick = 0;
+
+	private TimingWheel(final long tickNanos, final int wheelSize) {
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+		this.tickNanos = tickNanos;
+		this.wheel = new Bucket[size];
+		this.mask = size - 1;
+		for (int i = 0; i < size; ++i) {
+			wheel[i] = new Bucket();
+		}
+	}
+
+	/**
+	 * Schedules a task for periodic execution. The task is due immediately, and afterwards every time the interval has passed.
+	 *
+	 * @param task The task to be performed.
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return a handle to cancel the task.
+	 */
+	public Task schedule(final Runnable task, final long amount, final TemporalUnit unit) {
+		if (!running) {
+			throw new IllegalStateException("TimingWheel has been closed");
+		}
+		final long intervalNanos = IntervalChecker.toDuration(amount, unit).toNanos();
+		final Task result = new Task(this, task, Math.max(1, (intervalNanos + tickNanos - 1) / tickNanos));
+		scheduled.add(result);
+		return result;
+	}
+
+	/**
+	 * Stops the driver thread. Scheduled tasks are not executed anymore.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		LockSupport.unpark(driver);
+	}
+
+	void run() {
+		try {
+			final long startTime = System.nanoTime();
+			while (running) {
+				final long waitTime = startTime + (currentTick + 1) * tickNanos - System.nanoTime();
+				if (waitTime > 0) {
+					LockSupport.parkNanos(this, waitTime);
+					continue;
+				}
+				++currentTick;
+				processCancellations();
+				processScheduled();
+				processBucket(wheel[(int) (currentTick & mask)]);
+			}
+		} finally { // if the driver dies, fail new schedules instead of silently never running them
+			running = false;
+		}
+	}
+
+	void processCancellations() {
+		Task task;
+		while ((task = cancelled.poll()) != null) {
+			if (task.bucket != null) {
+				task.bucket.remove(task);
+			}
+		}
+	}
+
+	void processScheduled() {
+		Task task;
+		while ((task = scheduled.poll()) != null) {
+			if (!task.isCancelled()) {
+				insert(task, 0);
+			}
+		}
+	}
+
+	/**
+	 * Inserts a task that is due the given amount of ticks from now. A delay of 0 only works before the current bucket is processed.
+	 */
+	void insert(final Task task, final long delayTicks) {
+		final long dueTick = currentTick + delayTicks;
+		// the amount of times the bucket is visited before the task is due
+		task.remainingRounds = (delayTicks > 0) ? (delayTicks - 1) / wheel.length : 0;
+		wheel[(int) (dueTick & mask)].add(task);
+	}
+
+	void processBucket(final Bucket bucket) {
+		// tasks that are re-inserted into this bucket are appended after the current tail and must not be visited again in this tick
+		final Task last = bucket.tail;
+		Task task = bucket.head;
+		while (task != null) {
+			final Task next = task.next;
+			final boolean isLast = (task == last);
+			if (task.remainingRounds > 0) {
+				--task.remainingRounds;
+			} else {
+				bucket.remove(task);
+				if (!task.isCancelled()) {
+					execute(task);
+				}
+			}
+			if (isLast) {
+				break;
+			}
+			task = next;
+		}
+	}
+
+	void execute(final Task task) {
+		try {
+			task.runnable.run();
+			if (!task.isCancelled()) {
+				insert(task, task.intervalTicks);
+			}
+		} catch (Throwable e) { // errors as well, the driver thread must survive any task
+			task.cancel();
+			final Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		}
+	}
+
+	/**
+	 * A doubly-linked list of tasks, only accessed by the driver thread.
+	 */
+	static final class Bucket {
+
+		Task head;
+		Task tail;
+
+		void add(final Task task) {
+			task.bucket = this;
+			task.prev = tail;
+			task.next = null;
+			if (tail == null) {
+				head = task;
+			} else {
+				tail.next = task;
+			}
+			tail = task;
+		}
+
+		void remove(final Task task) {
+			if (task.prev == null) {
+				head = task.next;
+			} else {
+				task.prev.next = task.next;
+			}
+			if (task.next == null) {
+				tail = task.prev;
+			} else {
+				task.next.prev = task.prev;
+			}
+			task.bucket = null;
+			task.prev = null;
+			task.next = null;
+		}
+	}
+
+	/**
+	 * A handle for a task scheduled on a timing wheel.
+	 */
+	public static final class Task {
+
+		private static final int ACTIVE = 0;
+		private static final int CANCELLED = 1;
+
+		final TimingWheel owner;
+		final Runnable runnable;
+		final long intervalTicks;
+		final AtomicInteger state = new AtomicInteger(ACTIVE);
+		// only accessed by the driver thread
+		Bucket bucket;
+		Task prev;
+		Task next;
+		long remainingRounds;
+
+		Task(final TimingWheel owner, final Runnable runnable, final long intervalTicks) {
+			this.owner = owner;
+			this.runnable = runnable;
+			this.intervalTicks = intervalTicks;
+		}
+
+		/**
+		 * Cancels the task, so it will not be executed anymore. An execution that is currently running is not interrupted.
+		 *
+		 * @return true if the task was cancelled by this call, false if it had been cancelled before.
+		 */
+		public boolean cancel() {
+			if (state.compareAndSet(ACTIVE, CANCELLED)) {
+				owner.cancelled.add(this);
+				return true;
+			} else {
+				return false;
+			}
+		}
+
+		/**
+		 * Returns whether or not this task has been cancelled.
+		 *
+		 * @return true if this task has been cancelled.
+		 */
+		public boolean isCancelled() {
+			return state.get() == CANCELLED;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events within a sliding time window, for example to answer "how many requests were there in the last 10 seconds".
+ * <p>
+ * The window is split into a ring of slots, each holding a {@link LongAdder}. Events are added to the slot of the current time, and slots are reused once
+ * they have fallen out of the window. Counting is lock-free and does not allocate, concurrent increments are striped by the LongAdders.
+ * <p>
+ * The result is an approximation: the window moves in steps of one slot, and increments that race with the rotation of their slot might get lost. More
+ * slots make the window more precise at the cost of slower sums.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ *   WindowedCounter requests = WindowedCounter.of(10, ChronoUnit.SECONDS);
+ *   requests.increment(); // on every request
+ *   // ...
+ *   if (requests.sum() > limit) {
+ *     // throttle...
+ *   }
+ * }
+ * </pre>
+ */
+public final class WindowedCounter {
+
+	private static final int DEFAULT_SLOTS = 10;
+
+	/**
+	 * Creates a new WindowedCounter for the given time window, split into 10 slots.
+	 *
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return A WindowedCounter for the given time window.
+	 */
+	public static WindowedCounter of(final long amount, final TemporalUnit unit) {
+		return of(amount, unit, DEFAULT_SLOTS);
+	}
+
+	/**
+	 * Creates a new WindowedCounter for the given time window, split into the given amount of slots.
+	 *
+	 * @param amount The amount of the specified unit.
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @param slots into how many slots the window is split.
+	 * @return A WindowedCounter for the given time window.
+	 */
+	public static WindowedCounter of(final long amount, final TemporalUnit unit, final int slots) {
+		if (slots <= 0) {
+			throw new IllegalArgumentException("Amount of slots must be > 0");
+		}
+		final long windowNanos = IntervalChecker.toDuration(amount, unit).toNanos();
+		return new WindowedCounter(Math.max(1, windowNanos / slots), slots);
+	}
+
+	final long slotNanos;
+	final LongAdder[] counts;
+	/**
+	 * The time slot each entry of the ring currently counts for.
+	 */
+	final AtomicLongArray slotIDs;
+
+	private WindowedCounter(final long slotNanos, final int slots) {
+		this.slotNanos = slotNanos;
+		this.counts = new LongAdder[slots];
+		this.slotIDs = new AtomicLongArray(slots);
+		final long currentSlot = currentSlot();
+		for (int i = 0; i < slots; ++i) {
+			counts[i] = new LongAdder();
+			slotIDs.set(i, currentSlot - slots);
+		}
+	}
+
+	long currentSlot() {
+		return Math.floorDiv(System.nanoTime(), slotNanos);
+	}
+
+	/**
+	 * Counts a single event.
+	 */
+	public void increment() {
+		add(1);
+	}
+
+	/**
+	 * Counts the given amount of events.
+	 *
+	 * @param events the amount of events.
+	 */
+	public void add(final long events) {
+		add(events, currentSlot());
+	}
+
+	/**
+	 * Counts events for the given time slot. Entries of the ring only rotate forward, a thread that computed its slot before a newer one was started just adds
+	 * to the newer slot instead of resetting it.
+	 */
+	void add(final long events, final long slot) {
+		final int index = (int) Math.floorMod(slot, (long) counts.length);
+		long slotID;
+		while (slot - (slotID = slotIDs.get(index)) > 0) {
+			if (slotIDs.compareAndSet(index, slotID, slot)) {
+				counts[index].reset();
+				break;
+			}
+		}
+		counts[index].add(events);
+	}
+
+	/**
+	 * Returns the amount of events counted within the time window.
+	 *
+	 * @return the amount of events within the time window.
+	 */
+	public long sum() {
+		final long slot = currentSlot();
+		long result = 0;
+		for (int i = 0; i < counts.length; ++i) {
+			final long age = slot - slotIDs.get(i);
+			if ((age >= 0) && (age < counts.length)) {
+				result += counts[i].sum();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the average amount of events per given time unit within the time window.
+	 *
+	 * @param unit The time unit, usually {@link ChronoUnit ChronoUnit}.
+	 * @return the average amount of events per time unit.
+	 */
+	public double rate(final TemporalUnit unit) {
+		return (double) sum() * unit.getDuration().toNanos() / ((double) slotNanos * counts.length);
+	}
+}
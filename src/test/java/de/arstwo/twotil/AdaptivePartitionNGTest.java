@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class AdaptivePartitionNGTest {
+
+	@Test
+	public void testCoversAllItemsInOrder() {
+		List<Integer> source = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+		AdaptivePartition<Integer> chunks = Partition.adaptive(source, 10, 1, ChronoUnit.SECONDS);
+		List<Integer> result = new ArrayList<>();
+		chunks.forEachRemaining(result::addAll);
+		assertEquals(result, source);
+		try {
+			chunks.next();
+			fail("no throw");
+		} catch (NoSuchElementException e) {
+		}
+	}
+
+	@Test
+	public void testGrowsForFastAndShrinksForSlowChunks() throws Exception {
+		List<Integer> source = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+		AdaptivePartition<Integer> chunks = Partition.adaptive(source, 100, 10, 100_000, 20, ChronoUnit.MILLIS);
+		assertEquals(chunks.next().size(), 100);
+		assertEquals(chunks.next().size(), 200); // almost no processing time, grows by the maximum factor
+		Thread.sleep(100);
+		assertEquals(chunks.next().size(), 100); // took far too long, shrinks by the maximum factor
+		assertEquals(chunks.getChunkSize(), 100);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidBounds() {
+		Partition.adaptive(new ArrayList<Integer>(), 10, 20, 10, 1, ChronoUnit.SECONDS);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class ArrayPartitionNGTest {
+
+	@Test
+	public void testChunksAreViews() {
+		int[] data = {0, 1, 2, 3, 4};
+		ArrayPartition<IntBuffer> p = ArrayPartition.of(data, 2);
+		assertEquals(p.size(), 3);
+		IntBuffer last = p.get(2);
+		assertEquals(last.remaining(), 1);
+		assertEquals(last.get(0), 4);
+		data[4] = 42;
+		assertEquals(last.get(0), 42);
+		assertEquals(p.get(1).get(1), 3);
+		assertEquals(p.offset(1), 2);
+		assertEquals(p.length(2), 1);
+		assertEquals(ArrayPartition.of(new double[]{1.5, 2.5}, 2).get(0).get(1), 2.5, 0.0);
+		assertEquals(ArrayPartition.of(new int[0], 2).size(), 0);
+	}
+
+	@Test(expectedExceptions = IndexOutOfBoundsException.class)
+	public void testIndexOutOfBounds() {
+		ArrayPartition.of(new long[]{1, 2}, 1).get(2);
+	}
+
+	@Test
+	public void testRanges() {
+		StringBuilder ranges = new StringBuilder();
+		ArrayPartition.of(new double[7], 3).forEachRange((offset, length) -> ranges.append(offset).append(':').append(length).append(' '));
+		assertEquals(ranges.toString(), "0:3 3:3 6:1 ");
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		long[] data = LongStream.range(0, 100_000).toArray();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ArrayPartition<LongBuffer> p = ArrayPartition.of(data, 1000);
+			AtomicLong sum = new AtomicLong();
+			p.parallelForEachRange(executor, 4, (offset, length) -> {
+				for (int i = offset; i < offset + length; ++i) {
+					sum.addAndGet(data[i]);
+				}
+			});
+			assertEquals(sum.get(), 99_999L * 100_000L / 2);
+			List<Long> firsts = p.parallelMap(executor, 4, b -> b.get(0));
+			assertEquals(firsts.get(99).longValue(), 99_000L);
+			assertEquals(p.parallelStream().mapToLong(b -> b.get(b.limit() - 1)).max().getAsLong(), 99_999L);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
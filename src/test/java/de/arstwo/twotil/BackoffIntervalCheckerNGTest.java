@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class BackoffIntervalCheckerNGTest {
+
+	@Test
+	public void testFailuresGrowUpToMaximum() {
+		BackoffIntervalChecker checker = BackoffIntervalChecker.between(1, 60, ChronoUnit.SECONDS);
+		assertTrue(checker.updateIfDue());
+		assertFalse(checker.updateIfDue());
+		Duration previous = checker.getInterval();
+		assertEquals(previous, Duration.ofSeconds(1));
+		for (int i = 0; i < 100; ++i) {
+			checker.reportFailure();
+			Duration current = checker.getInterval();
+			assertTrue(current.compareTo(Duration.ofSeconds(1)) >= 0);
+			assertTrue(current.compareTo(Duration.ofSeconds(60)) <= 0);
+			assertTrue(current.compareTo(previous.multipliedBy(3)) <= 0);
+			previous = current;
+		}
+		assertFalse(checker.updateIfDue());
+		checker.reportSuccess();
+		assertEquals(checker.getInterval(), Duration.ofSeconds(1));
+		checker.forceDue();
+		assertTrue(checker.updateIfDue());
+	}
+
+	@Test
+	public void testExecuteIfDueReportsFailure() throws Exception {
+		BackoffIntervalChecker checker = BackoffIntervalChecker.between(50, 50, ChronoUnit.MILLIS);
+		try {
+			checker.executeIfDue(() -> {
+				throw new IllegalStateException();
+			});
+			fail("no throw");
+		} catch (IllegalStateException e) {
+		}
+		assertFalse(checker.executeIfDue(() -> {
+		}));
+		Thread.sleep(100);
+		assertTrue(checker.executeIfDue(() -> {
+		}));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidLimits() {
+		BackoffIntervalChecker.between(10, 5, ChronoUnit.SECONDS);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class CoarseClockNGTest {
+
+	@Test
+	public void testFollowsSystemTime() throws Exception {
+		CoarseClock clock = CoarseClock.systemUTC();
+		long start = clock.millis();
+		assertTrue(Math.abs(start - System.currentTimeMillis()) < 1000);
+		Thread.sleep(50);
+		assertTrue(clock.millis() > start);
+		assertEquals(clock.instant().toEpochMilli() / 1000, clock.millis() / 1000, 1);
+	}
+
+	@Test
+	public void testZone() {
+		CoarseClock clock = CoarseClock.systemUTC();
+		assertEquals(clock.getZone(), ZoneOffset.UTC);
+		assertSame(clock.withZone(ZoneOffset.UTC), clock);
+		assertEquals(clock.withZone(ZoneId.of("Europe/Berlin")).getZone(), ZoneId.of("Europe/Berlin"));
+		assertEquals(clock, CoarseClock.systemUTC());
+	}
+}
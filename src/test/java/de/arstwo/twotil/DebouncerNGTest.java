@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class DebouncerNGTest {
+
+	@Test
+	public void testCallsDuringRunAreCoalesced() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			AtomicInteger runs = new AtomicInteger();
+			AtomicInteger concurrent = new AtomicInteger();
+			AtomicInteger maxConcurrent = new AtomicInteger();
+			Debouncer debouncer = Debouncer.coalescing(executor, () -> {
+				maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+				runs.incrementAndGet();
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+				}
+				concurrent.decrementAndGet();
+			});
+			assertTrue(debouncer.trigger());
+			started.await();
+			for (int i = 0; i < 100; ++i) {
+				assertFalse(debouncer.trigger());
+			}
+			release.countDown();
+			while (debouncer.isBusy()) {
+				Thread.sleep(5);
+			}
+			assertEquals(runs.get(), 2);
+			assertEquals(maxConcurrent.get(), 1);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testTrailingRunRespectsInterval() throws Exception {
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			AtomicInteger runs = new AtomicInteger();
+			Debouncer debouncer = Debouncer.every(200, ChronoUnit.MILLIS, executor, runs::incrementAndGet);
+			assertTrue(debouncer.trigger());
+			Thread.sleep(50);
+			assertEquals(runs.get(), 1);
+			assertTrue(debouncer.trigger());
+			assertFalse(debouncer.trigger());
+			Thread.sleep(50);
+			assertEquals(runs.get(), 1);
+			Thread.sleep(200);
+			assertEquals(runs.get(), 2);
+			assertFalse(debouncer.isBusy());
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.SECONDS);
+		}
+	}
+}
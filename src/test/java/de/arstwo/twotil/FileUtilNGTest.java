@@ -15,15 +15,34 @@
  */
 package de.arstwo.twotil;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import static org.testng.Assert.*;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
 public class FileUtilNGTest {
@@ -39,6 +58,118 @@ public class FileUtilNGTest {
 		Files.deleteIfExists(f);
 	}
 
+	@Test
+	public void testFileOlderThanWithClock() throws Exception {
+		Path f = Files.createTempFile("old", "txt");
+		Instant modified = Instant.parse("2020-01-01T00:00:00Z");
+		Files.setLastModifiedTime(f, FileTime.from(modified));
+		assertTrue(FileUtil.fileOlderThan(1, ChronoUnit.DAYS, Clock.fixed(modified.plus(2, ChronoUnit.DAYS), ZoneOffset.UTC)).test(f));
+		assertFalse(FileUtil.fileOlderThan(1, ChronoUnit.DAYS, Clock.fixed(modified.plus(12, ChronoUnit.HOURS), ZoneOffset.UTC)).test(f));
+		Files.deleteIfExists(f);
+	}
+
+	@Test
+	public void testScan() throws Exception {
+		Path root = Files.createTempDirectory("scan");
+		Path old = Files.write(root.resolve("old.txt"), new byte[10]);
+		Path big = Files.write(Files.createDirectories(root.resolve("sub/deeper")).resolve("big.txt"), new byte[1000]);
+		Path recent = Files.write(root.resolve("sub/recent.txt"), new byte[10]);
+		Instant now = Instant.parse("2020-01-10T00:00:00Z");
+		Files.setLastModifiedTime(old, FileTime.from(now.minus(5, ChronoUnit.DAYS)));
+		Files.setLastModifiedTime(big, FileTime.from(now.minus(3, ChronoUnit.DAYS)));
+		Files.setLastModifiedTime(recent, FileTime.from(now));
+		Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+
+		assertEquals(new HashSet<>(FileUtil.findFiles(root, FileUtil.olderThan(2, ChronoUnit.DAYS, clock))), new HashSet<>(Arrays.asList(old, big)));
+		assertEquals(FileUtil.findFiles(root, FileUtil.regularFiles().and(FileUtil.largerThan(100))), Arrays.asList(big));
+
+		Set<Path> found = ConcurrentHashMap.newKeySet();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertTrue(FileUtil.scan(root, FileUtil.regularFiles(), (p, attributes) -> found.add(p), pool));
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(found, new HashSet<>(Arrays.asList(old, big, recent)));
+		assertFalse(FileUtil.scan(root.resolve("missing"), FileUtil.regularFiles(), (p, attributes) -> found.add(p)));
+
+		FileUtil.tryDeletePath(big);
+		FileUtil.tryDeletePath(big.getParent());
+		FileUtil.tryDeletePath(recent);
+		FileUtil.tryDeletePath(recent.getParent());
+		FileUtil.tryDeletePath(old);
+		FileUtil.tryDeletePath(root);
+	}
+
+	/**
+	 * Creates a directory tree nested deeper than the worker stack would allow with one joined task per level.
+	 */
+	static Path createDeepTree(Path root) throws Exception {
+		StringBuilder path = new StringBuilder();
+		for (int i = 0; i < 1500; ++i) {
+			path.append("d/");
+		}
+		Path leaf = Files.createDirectories(root.resolve(path.toString()));
+		return Files.write(leaf.resolve("leaf.txt"), new byte[7]);
+	}
+
+	static void deleteTree(Path root) throws Exception {
+		try (Stream<Path> paths = Files.walk(root)) {
+			for (Path p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(p);
+			}
+		}
+	}
+
+	@Test
+	public void testScanDeepTree() throws Exception {
+		Path root = Files.createTempDirectory("deep");
+		Path leaf = createDeepTree(root);
+		Set<Path> found = ConcurrentHashMap.newKeySet();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertTrue(FileUtil.scan(root, FileUtil.regularFiles(), (p, attributes) -> found.add(p), pool));
+			assertEquals(found, new HashSet<>(Arrays.asList(leaf)));
+		} finally {
+			pool.shutdown();
+		}
+		deleteTree(root);
+	}
+
+	@Test
+	public void testDeleteDeepTree() throws Exception {
+		Path root = Files.createTempDirectory("deep");
+		createDeepTree(root);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			DeletionSummary summary = FileUtil.deleteRecursively(root, pool);
+			assertEquals(summary.getDeleted(), 1500 + 1 + 1);
+			assertEquals(summary.getFailed(), 0);
+			assertEquals(summary.getBytesFreed(), 7);
+			assertFalse(Files.exists(root));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testCopyDeepTree() throws Exception {
+		Path source = Files.createTempDirectory("deep");
+		createDeepTree(source);
+		Path target = Files.createTempDirectory("deepcopy").resolve("copy");
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertTrue(FileUtil.copyDirectory(source, target, pool));
+			assertEquals(FileUtil.findFiles(target, FileUtil.regularFiles()).size(), 1);
+			assertFalse(FileUtil.copyDirectory(source, source.resolve("d"), pool));
+			assertFalse(FileUtil.copyDirectory(source, source, pool));
+		} finally {
+			pool.shutdown();
+		}
+		deleteTree(source);
+		deleteTree(target.getParent());
+	}
+
 	@Test
 	public void testUnzipRootOnly() throws Exception {
 		Path zip = Files.createTempFile("test", ".zip");
@@ -59,6 +190,267 @@ public class FileUtilNGTest {
 		FileUtil.tryDeletePath(target);
 	}
 
+	@Test
+	public void testUnzipRootOnlyParallel() throws Exception {
+		Path zip = Files.createTempFile("test", ".zip");
+		try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+			for (int i = 0; i < 20; ++i) {
+				zos.putNextEntry(new ZipEntry("file" + i + ".txt"));
+				zos.write(("content " + i).getBytes());
+				zos.closeEntry();
+			}
+			zos.putNextEntry(new ZipEntry("sub/b.txt"));
+			zos.write("y".getBytes());
+			zos.closeEntry();
+		}
+		Path target = Files.createTempDirectory("unz");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			assertTrue(FileUtil.unzipRootOnly(zip, target, executor));
+		} finally {
+			executor.shutdown();
+		}
+		for (int i = 0; i < 20; ++i) {
+			assertEquals(new String(Files.readAllBytes(target.resolve("file" + i + ".txt"))), "content " + i);
+			FileUtil.tryDeletePath(target.resolve("file" + i + ".txt"));
+		}
+		assertFalse(Files.exists(target.resolve("sub")));
+		FileUtil.tryDeletePath(zip);
+		FileUtil.tryDeletePath(target);
+	}
+
+	@Test
+	public void testUnzipFullTree() throws Exception {
+		Path zip = Files.createTempFile("test", ".zip");
+		try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+			zos.putNextEntry(new ZipEntry("a.txt"));
+			zos.write("x".getBytes());
+			zos.closeEntry();
+			zos.putNextEntry(new ZipEntry("sub/"));
+			zos.closeEntry();
+			zos.putNextEntry(new ZipEntry("sub/deeper/b.txt"));
+			zos.write("y".getBytes());
+			zos.closeEntry();
+			zos.putNextEntry(new ZipEntry("sub/skip.log"));
+			zos.write("z".getBytes());
+			zos.closeEntry();
+		}
+		for (boolean parallel : new boolean[]{false, true}) {
+			Path target = Files.createTempDirectory("unz");
+			Predicate<ZipEntry> filter = e -> !e.getName().endsWith(".log");
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				assertTrue(parallel ? FileUtil.unzip(zip, target, filter, executor) : FileUtil.unzip(zip, target, filter));
+			} finally {
+				executor.shutdown();
+			}
+			assertEquals(new String(Files.readAllBytes(target.resolve("a.txt"))), "x");
+			assertEquals(new String(Files.readAllBytes(target.resolve("sub/deeper/b.txt"))), "y");
+			assertFalse(Files.exists(target.resolve("sub/skip.log")));
+			FileUtil.tryDeletePath(target.resolve("sub/deeper/b.txt"));
+			FileUtil.tryDeletePath(target.resolve("sub/deeper"));
+			FileUtil.tryDeletePath(target.resolve("sub"));
+			FileUtil.tryDeletePath(target.resolve("a.txt"));
+			FileUtil.tryDeletePath(target);
+		}
+		FileUtil.tryDeletePath(zip);
+	}
+
+	@Test
+	public void testUnzipCurrentDirectoryEntry() throws Exception {
+		Path zip = Files.createTempFile("test", ".zip");
+		try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+			zos.putNextEntry(new ZipEntry("./"));
+			zos.closeEntry();
+			zos.putNextEntry(new ZipEntry("./a.txt"));
+			zos.write("x".getBytes());
+			zos.closeEntry();
+		}
+		for (boolean parallel : new boolean[]{false, true}) {
+			Path target = Files.createTempDirectory("unz");
+			ExecutorService executor = Executors.newFixedThreadPool(2);
+			try {
+				assertTrue(parallel ? FileUtil.unzip(zip, target, e -> true, executor) : FileUtil.unzip(zip, target, e -> true));
+			} finally {
+				executor.shutdown();
+			}
+			assertEquals(new String(Files.readAllBytes(target.resolve("a.txt"))), "x");
+			FileUtil.tryDeletePath(target.resolve("a.txt"));
+			FileUtil.tryDeletePath(target);
+		}
+		FileUtil.tryDeletePath(zip);
+	}
+
+	@Test
+	public void testUnzipRejectsZipSlip() throws Exception {
+		Path zip = Files.createTempFile("test", ".zip");
+		try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zip))) {
+			zos.putNextEntry(new ZipEntry("../evil.txt"));
+			zos.write("x".getBytes());
+			zos.closeEntry();
+		}
+		Path parent = Files.createTempDirectory("unz");
+		Path target = Files.createDirectory(parent.resolve("target"));
+		assertFalse(FileUtil.unzip(zip, target, e -> true));
+		assertFalse(Files.exists(parent.resolve("evil.txt")));
+		FileUtil.tryDeletePath(zip);
+		FileUtil.tryDeletePath(target);
+		FileUtil.tryDeletePath(parent);
+	}
+
+	@Test
+	public void testGzip() throws Exception {
+		Path source = Files.createTempFile("data", ".txt");
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 100_000; ++i) {
+			content.append("line ").append(i).append('\n');
+		}
+		Files.write(source, content.toString().getBytes());
+		Path target = Files.createTempFile("data", ".gz");
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			assertTrue(FileUtil.gzip(source, target, executor));
+		} finally {
+			executor.shutdown();
+		}
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(target))) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				result.write(buffer, 0, read);
+			}
+		}
+		assertEquals(result.toString(), content.toString());
+		FileUtil.tryDeletePath(source);
+		FileUtil.tryDeletePath(target);
+	}
+
+	@Test
+	public void testDeleteRecursively() throws Exception {
+		Path root = Files.createTempDirectory("del");
+		for (int i = 0; i < 5; ++i) {
+			Path dir = Files.createDirectories(root.resolve("d" + i + "/nested"));
+			Files.write(dir.resolve("f.txt"), new byte[100]);
+			Files.write(dir.getParent().resolve("g.txt"), new byte[20]);
+		}
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			DeletionSummary summary = FileUtil.deleteRecursively(root, pool);
+			assertEquals(summary.getDeleted(), 5 * 4 + 1);
+			assertEquals(summary.getFailed(), 0);
+			assertEquals(summary.getBytesFreed(), 5 * 120);
+			assertFalse(Files.exists(root));
+			assertEquals(FileUtil.deleteRecursively(root, pool).getFailed(), 1);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testDeleteFlatDirectoryInBatches() throws Exception {
+		Path root = Files.createTempDirectory("flat");
+		int count = FileUtil.DELETE_BATCH_SIZE * 2 + 10;
+		for (int i = 0; i < count; ++i) {
+			Files.write(root.resolve("f" + i), new byte[3]);
+		}
+		Path kept = Files.write(root.resolve("kept"), new byte[3]);
+		Files.setLastModifiedTime(kept, FileTime.from(Instant.now().plus(1, ChronoUnit.DAYS)));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			DeletionSummary summary = FileUtil.deleteRecursively(root, RetentionPolicy.none().keepNewest(1), pool);
+			assertEquals(summary.getDeleted(), count);
+			assertEquals(summary.getFailed(), 0);
+			assertEquals(summary.getBytesFreed(), 3L * count);
+			try (Stream<Path> files = Files.list(root)) {
+				assertEquals(files.collect(Collectors.toList()), Arrays.asList(kept));
+			}
+			FileUtil.deleteRecursively(root, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testCopyFile() throws Exception {
+		byte[] data = new byte[3 * 1024 * 1024 + 17];
+		new Random(3).nextBytes(data);
+		Path source = Files.write(Files.createTempFile("copy", ".bin"), data);
+		Files.setLastModifiedTime(source, FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+		for (boolean preallocate : new boolean[]{false, true}) {
+			Path target = Files.write(Files.createTempFile("copy", ".bin"), new byte[5 * 1024 * 1024]);
+			assertTrue(FileUtil.copyFile(source, target, preallocate));
+			assertEquals(Files.readAllBytes(target), data);
+			assertEquals(Files.getLastModifiedTime(target), Files.getLastModifiedTime(source));
+			FileUtil.tryDeletePath(target);
+		}
+		assertFalse(FileUtil.copyFile(source.resolveSibling("missing"), source.resolveSibling("missing2")));
+		assertTrue(FileUtil.copyFile(source, source));
+		assertTrue(FileUtil.copyFile(source, source.getParent().resolve(".").resolve(source.getFileName())));
+		assertEquals(Files.readAllBytes(source), data);
+		FileUtil.tryDeletePath(source);
+	}
+
+	@Test
+	public void testCopyDirectoryAndMove() throws Exception {
+		Path source = Files.createTempDirectory("src");
+		Files.write(source.resolve("a.txt"), "a".getBytes());
+		Files.write(Files.createDirectories(source.resolve("sub/deeper")).resolve("b.txt"), "b".getBytes());
+		Files.createDirectories(source.resolve("empty"));
+		Path copy = Files.createTempDirectory("dst").resolve("copy");
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertTrue(FileUtil.copyDirectory(source, copy, pool));
+			assertEquals(new String(Files.readAllBytes(copy.resolve("a.txt"))), "a");
+			assertEquals(new String(Files.readAllBytes(copy.resolve("sub/deeper/b.txt"))), "b");
+			assertTrue(Files.isDirectory(copy.resolve("empty")));
+
+			Path moved = copy.resolveSibling("moved");
+			assertTrue(FileUtil.move(copy, moved, pool));
+			assertFalse(Files.exists(copy));
+			assertEquals(new String(Files.readAllBytes(moved.resolve("sub/deeper/b.txt"))), "b");
+
+			FileUtil.deleteRecursively(source, pool);
+			FileUtil.deleteRecursively(moved.getParent(), pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testWriteAtomic() throws Exception {
+		Path dir = Files.createTempDirectory("atomic");
+		Path target = dir.resolve("state.txt");
+		assertTrue(FileUtil.writeAtomic(target, "first".getBytes()));
+		assertTrue(FileUtil.writeAtomic(target, "second".getBytes()));
+		assertEquals(new String(Files.readAllBytes(target)), "second");
+		assertFalse(FileUtil.writeAtomic(dir.resolve("missing/state.txt"), "x".getBytes()));
+		try (Stream<Path> files = Files.list(dir)) {
+			assertEquals(files.count(), 1);
+		}
+		FileUtil.tryDeletePath(target);
+		FileUtil.tryDeletePath(dir);
+	}
+
+	@Test
+	public void testWriteAtomicKeepsPermissions() throws Exception {
+		Path dir = Files.createTempDirectory("atomic");
+		if (!dir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+			throw new SkipException("requires POSIX file permissions");
+		}
+		Path existing = Files.write(dir.resolve("existing.txt"), "old".getBytes());
+		Set<PosixFilePermission> readable = PosixFilePermissions.fromString("rw-r--r--");
+		Files.setPosixFilePermissions(existing, readable);
+		assertTrue(FileUtil.writeAtomic(existing, "new".getBytes()));
+		assertEquals(Files.getPosixFilePermissions(existing), readable);
+
+		Path reference = Files.createFile(dir.resolve("reference.txt"));
+		Path created = dir.resolve("created.txt");
+		assertTrue(FileUtil.writeAtomic(created, "new".getBytes()));
+		assertEquals(Files.getPosixFilePermissions(created), Files.getPosixFilePermissions(reference));
+		FileUtil.deleteRecursively(dir, ForkJoinPool.commonPool());
+	}
+
 	@Test
 	public void testTryDeletePath() throws Exception {
 		Path f = Files.createTempFile("del", "txt");
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.testng.Assert.*;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+public class GroupCommitWriterNGTest {
+
+	@Test
+	public void testCoalescingAndClose() throws Exception {
+		Path dir = Files.createTempDirectory("commit");
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			GroupCommitWriter writer = GroupCommitWriter.every(1, ChronoUnit.HOURS, scheduler);
+			writer.write(dir.resolve("a"), "a1".getBytes()).get(10, TimeUnit.SECONDS);
+			assertEquals(new String(Files.readAllBytes(dir.resolve("a"))), "a1");
+
+			CompletableFuture<Void> b = writer.write(dir.resolve("b"), "b1".getBytes());
+			CompletableFuture<Void> a = writer.write(dir.resolve("a"), "a2".getBytes());
+			assertSame(writer.write(dir.resolve("b"), "b2".getBytes()), b);
+			assertFalse(b.isDone());
+
+			writer.close();
+			assertTrue(a.isDone() && b.isDone());
+			assertFalse(a.isCompletedExceptionally() || b.isCompletedExceptionally());
+			assertEquals(new String(Files.readAllBytes(dir.resolve("a"))), "a2");
+			assertEquals(new String(Files.readAllBytes(dir.resolve("b"))), "b2");
+			try (Stream<Path> files = Files.list(dir)) {
+				assertEquals(files.count(), 2);
+			}
+			assertThrows(IllegalStateException.class, () -> writer.write(dir.resolve("c"), new byte[0]));
+		} finally {
+			scheduler.shutdownNow();
+		}
+		FileUtil.tryDeletePath(dir.resolve("a"));
+		FileUtil.tryDeletePath(dir.resolve("b"));
+		FileUtil.tryDeletePath(dir);
+	}
+
+	/**
+	 * Commits far more files than the file descriptor limit of a child JVM allows.
+	 */
+	@Test
+	public void testLargeBacklogWithFewFileDescriptors() throws Exception {
+		if (!Files.isExecutable(Paths.get("/bin/sh"))) {
+			throw new SkipException("requires a POSIX shell to limit file descriptors");
+		}
+		Path dir = Files.createTempDirectory("commit");
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		String command = "ulimit -n 512 && exec \"$0\" -cp \"$1\" \"$2\" \"$3\" 3000";
+		Process process = new ProcessBuilder("/bin/sh", "-c", command, java, System.getProperty("java.class.path"), FdBudgetMain.class.getName(),
+						dir.toString())
+						.redirectErrorStream(true)
+						.start();
+		String output;
+		try (InputStream in = process.getInputStream()) {
+			output = new BufferedReader(new InputStreamReader(in)).lines().collect(Collectors.joining("\n"));
+		}
+		assertEquals(process.waitFor(), 0, output);
+		FileUtil.deleteRecursively(dir, ForkJoinPool.commonPool());
+	}
+
+	public static class FdBudgetMain {
+
+		public static void main(String[] args) throws Exception {
+			Path dir = Paths.get(args[0]);
+			int count = Integer.parseInt(args[1]);
+			ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			try {
+				GroupCommitWriter writer = GroupCommitWriter.every(1, ChronoUnit.HOURS, scheduler);
+				for (int i = 0; i < count; ++i) {
+					futures.add(writer.write(dir.resolve("f" + i), new byte[]{(byte) i}));
+				}
+				writer.close();
+			} finally {
+				scheduler.shutdownNow();
+			}
+			for (CompletableFuture<Void> future : futures) {
+				future.get();
+			}
+			try (Stream<Path> files = Files.list(dir)) {
+				if (files.count() != count) {
+					throw new IllegalStateException("Not all files were written");
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUncheckedFailureCompletesBatch() throws Exception {
+		Path dir = Files.createTempDirectory("commit");
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			GroupCommitWriter writer = GroupCommitWriter.every(1, ChronoUnit.HOURS, scheduler);
+			GroupCommitWriter.PendingWrite first = new GroupCommitWriter.PendingWrite(dir.resolve("first"), "x".getBytes());
+			GroupCommitWriter.PendingWrite broken = new GroupCommitWriter.PendingWrite(dir.resolve("broken"), "x".getBytes()) {
+				@Override
+				void writeTemp() {
+					throw new UnsupportedOperationException();
+				}
+			};
+			GroupCommitWriter.PendingWrite last = new GroupCommitWriter.PendingWrite(dir.resolve("last"), "x".getBytes());
+			writer.pending.put(first.target, first);
+			writer.pending.put(broken.target, broken);
+			writer.pending.put(last.target, last);
+			assertThrows(UnsupportedOperationException.class, writer::commit);
+			for (GroupCommitWriter.PendingWrite write : Arrays.asList(first, broken, last)) {
+				assertTrue(write.future.isCompletedExceptionally());
+			}
+			try (Stream<Path> files = Files.list(dir)) {
+				assertEquals(files.count(), 0);
+			}
+		} finally {
+			scheduler.shutdownNow();
+		}
+		FileUtil.tryDeletePath(dir);
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		Path dir = Files.createTempDirectory("commit");
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			GroupCommitWriter writer = GroupCommitWriter.every(1, ChronoUnit.MILLIS, scheduler);
+			CompletableFuture<Void> missing = writer.write(dir.resolve("missing/file"), "x".getBytes());
+			CompletableFuture<Void> fine = writer.write(dir.resolve("file"), "x".getBytes());
+			assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+			fine.get(10, TimeUnit.SECONDS);
+			writer.close();
+		} finally {
+			scheduler.shutdownNow();
+		}
+		FileUtil.tryDeletePath(dir.resolve("file"));
+		FileUtil.tryDeletePath(dir);
+	}
+}
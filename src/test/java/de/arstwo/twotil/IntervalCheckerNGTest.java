@@ -15,6 +15,10 @@
  */
 package de.arstwo.twotil;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import static org.testng.Assert.*;
@@ -37,4 +41,73 @@ public class IntervalCheckerNGTest {
 		ic.forceDue();
 		assertTrue(ic.updateIfDue());
 	}
+
+	@Test
+	public void testMonotonic() throws Exception {
+		IntervalChecker ic = IntervalChecker.monotonic(200, ChronoUnit.MILLIS);
+		assertTrue(ic.updateIfDue());
+		assertFalse(ic.updateIfDue());
+		Thread.sleep(250);
+		assertTrue(ic.updateIfDue());
+		assertFalse(ic.updateIfDue());
+		ic.forceDue();
+		assertTrue(ic.updateIfDue());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidAmount() {
+		IntervalChecker.monotonic(0, ChronoUnit.MILLIS);
+	}
+
+	@Test
+	public void testCustomClock() {
+		ManualClock clock = new ManualClock();
+		IntervalChecker ic = IntervalChecker.every(1, ChronoUnit.MINUTES, clock);
+		assertTrue(ic.updateIfDue());
+		clock.millis += 60_000;
+		assertFalse(ic.updateIfDue());
+		clock.millis += 1;
+		assertTrue(ic.updateIfDue());
+		ic.forceChecked();
+		clock.millis += 30_000;
+		assertFalse(ic.updateIfDue());
+	}
+
+	@Test
+	public void testSubMillisecondIntervalWithClock() {
+		ManualClock clock = new ManualClock();
+		IntervalChecker ic = IntervalChecker.every(1500, ChronoUnit.MICROS, clock);
+		assertTrue(ic.updateIfDue());
+		clock.millis += 1;
+		clock.nanoAdjustment = 400_000;
+		assertFalse(ic.updateIfDue());
+		clock.nanoAdjustment = 600_000;
+		assertTrue(ic.updateIfDue());
+	}
+
+	static class ManualClock extends Clock {
+
+		long millis = 1_000_000;
+		long nanoAdjustment = 0;
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis).plusNanos(nanoAdjustment);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
 }
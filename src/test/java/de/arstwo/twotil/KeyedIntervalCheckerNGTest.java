@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import de.arstwo.twotil.IntervalCheckerNGTest.ManualClock;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class KeyedIntervalCheckerNGTest {
+
+	@Test
+	public void testSubMillisecondIntervalWithClock() {
+		ManualClock clock = new ManualClock();
+		KeyedIntervalChecker<String> checker = KeyedIntervalChecker.every(1500, ChronoUnit.MICROS, clock);
+		assertTrue(checker.updateIfDue("a"));
+		clock.millis += 1;
+		clock.nanoAdjustment = 400_000;
+		assertFalse(checker.updateIfDue("a"));
+		clock.nanoAdjustment = 600_000;
+		assertTrue(checker.updateIfDue("a"));
+	}
+
+	@Test
+	public void testPerKeyIntervals() {
+		ManualClock clock = new ManualClock();
+		KeyedIntervalChecker<String> checker = KeyedIntervalChecker.every(1, ChronoUnit.SECONDS, clock);
+		assertTrue(checker.updateIfDue("a"));
+		assertFalse(checker.updateIfDue("a"));
+		assertTrue(checker.updateIfDue("b"));
+		clock.millis += 1001;
+		AtomicBoolean ran = new AtomicBoolean();
+		assertTrue(checker.executeIfDue("a", () -> ran.set(true)));
+		assertTrue(ran.get());
+		assertFalse(checker.updateIfDue("a"));
+		checker.forceDue("a");
+		assertTrue(checker.updateIfDue("a"));
+		checker.forceChecked("c");
+		assertFalse(checker.updateIfDue("c"));
+	}
+
+	@Test
+	public void testIdleKeysAreEvicted() {
+		ManualClock clock = new ManualClock();
+		KeyedIntervalChecker<Integer> checker = KeyedIntervalChecker.every(1, ChronoUnit.SECONDS, clock);
+		for (int i = 0; i < 10_000; ++i) {
+			assertTrue(checker.updateIfDue(i));
+		}
+		assertEquals(checker.size(), 10_000);
+		clock.millis += 1001;
+		for (int i = 10_000; i < 20_000; ++i) {
+			assertTrue(checker.updateIfDue(i));
+		}
+		assertTrue(checker.size() < 15_000);
+		clock.millis += 1001;
+		checker.purge();
+		assertEquals(checker.size(), 0);
+	}
+
+	@Test
+	public void testMatchesReferenceModel() {
+		ManualClock clock = new ManualClock();
+		KeyedIntervalChecker<Integer> checker = KeyedIntervalChecker.every(100, ChronoUnit.MILLIS, clock);
+		Map<Integer, Long> model = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 200_000; ++i) {
+			Integer key = random.nextInt(2_000);
+			clock.millis += random.nextInt(3);
+			if (random.nextInt(10) == 0) {
+				checker.forceDue(key);
+				model.remove(key);
+			} else {
+				Long deadline = model.get(key);
+				boolean expected = (deadline == null) || (clock.millis > deadline);
+				if (expected) {
+					model.put(key, clock.millis + 100);
+				}
+				assertEquals(checker.updateIfDue(key), expected);
+			}
+		}
+	}
+}
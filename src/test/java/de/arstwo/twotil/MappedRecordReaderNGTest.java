@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class MappedRecordReaderNGTest {
+
+	static Path write(String content) throws Exception {
+		return Files.write(Files.createTempFile("records", ".txt"), content.getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	static List<String> readLines(MappedRecordReader reader) throws Exception {
+		List<String> result = new ArrayList<>();
+		reader.forEachLine(line -> result.add(line.toString()));
+		return result;
+	}
+
+	@Test
+	public void testLines() throws Exception {
+		Path file = write("first\r\nsecond\n\nlast");
+		assertEquals(readLines(MappedRecordReader.lines(file)), Arrays.asList("first", "second", "", "last"));
+		List<String> viaFileUtil = new ArrayList<>();
+		assertTrue(FileUtil.forEachLine(file, line -> viaFileUtil.add(line.toString())));
+		assertEquals(viaFileUtil, Arrays.asList("first", "second", "", "last"));
+		FileUtil.tryDeletePath(file);
+	}
+
+	@Test
+	public void testSmallWindows() throws Exception {
+		Path file = write("a;bb;averyveryverylongrecord;ccc;");
+		List<String> records = new ArrayList<>();
+		MappedRecordReader.of(file, (byte) ';', 4).forEach(buffer -> {
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			records.add(new String(bytes, StandardCharsets.ISO_8859_1));
+		});
+		assertEquals(records, Arrays.asList("a", "bb", "averyveryverylongrecord", "ccc"));
+		FileUtil.tryDeletePath(file);
+	}
+
+	@Test
+	public void testCharSequence() throws Exception {
+		Path file = write("hello world\n");
+		MappedRecordReader.lines(file).forEachLine(line -> {
+			assertEquals(line.length(), 11);
+			assertEquals(line.charAt(6), 'w');
+			assertEquals(line.subSequence(0, 5).toString(), "hello");
+		});
+		FileUtil.tryDeletePath(file);
+	}
+
+	@Test
+	public void testSplit() throws Exception {
+		StringBuilder content = new StringBuilder();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; ++i) {
+			expected.add("line " + i);
+			content.append("line ").append(i).append('\n');
+		}
+		Path file = write(content.toString());
+		MappedRecordReader reader = MappedRecordReader.lines(file);
+		List<MappedRecordReader> ranges = reader.split(7);
+		assertEquals(ranges.size(), 7);
+		assertEquals(ranges.get(0).getStart(), 0);
+		assertEquals(ranges.get(6).getEnd(), reader.getEnd());
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < ranges.size(); ++i) {
+			if (i > 0) {
+				assertEquals(ranges.get(i).getStart(), ranges.get(i - 1).getEnd());
+			}
+			lines.addAll(readLines(ranges.get(i)));
+		}
+		assertEquals(lines, expected);
+
+		Path single = write("onlyonerecord");
+		assertEquals(MappedRecordReader.lines(single).split(4).size(), 1);
+		FileUtil.tryDeletePath(single);
+		FileUtil.tryDeletePath(file);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+public class ParallelGzipOutputStreamNGTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterClass
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	static byte[] testData(int size) {
+		Random random = new Random(7);
+		byte[] result = new byte[size];
+		for (int i = 0; i < size; ++i) {
+			result[i] = (byte) ((i % 1000 < 500) ? 'a' + (i % 13) : random.nextInt(256));
+		}
+		return result;
+	}
+
+	static byte[] gunzip(byte[] compressed) throws Exception {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				result.write(buffer, 0, read);
+			}
+		}
+		return result.toByteArray();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		byte[] data = testData(1_000_000);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executor, Deflater.DEFAULT_COMPRESSION, 64 * 1024, 3)) {
+			out.write(data, 0, 100);
+			out.write(data[100]);
+			out.write(data, 101, data.length - 101);
+		}
+		assertTrue(compressed.size() < data.length);
+		assertEquals(gunzip(compressed.toByteArray()), data);
+	}
+
+	@Test
+	public void testEmptyAndFlushed() throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		new ParallelGzipOutputStream(compressed, executor).close();
+		assertEquals(gunzip(compressed.toByteArray()).length, 0);
+
+		byte[] data = testData(300_000);
+		compressed.reset();
+		try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, executor)) {
+			out.write(data, 0, 200_000);
+			out.flush();
+			out.write(data, 200_000, 100_000);
+		}
+		assertEquals(gunzip(compressed.toByteArray()), data);
+	}
+}
@@ -16,6 +16,14 @@
 package de.arstwo.twotil;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import static org.testng.Assert.*;
 import org.testng.annotations.Test;
 
@@ -45,4 +53,164 @@ public class PartitionNGTest {
 		} catch (IndexOutOfBoundsException e) {
 		}
 	}
+
+	@Test
+	public void testViewDoesNotCopy() {
+		List<Integer> source = new ArrayList<>(Arrays.asList(0, 1, 2, 3, 4));
+		Partition<Integer> view = Partition.view(source, 2);
+		Partition<Integer> snapshot = view.snapshot();
+		assertEquals(view.size(), 3);
+		assertEquals(view.get(2), Arrays.asList(4));
+		source.set(0, 42);
+		assertEquals(view.get(0), Arrays.asList(42, 1));
+		assertEquals(snapshot.get(0), Arrays.asList(0, 1));
+		assertEquals(Partition.of(source, 2).get(0), Arrays.asList(42, 1));
+	}
+
+	@Test
+	public void testViewOfLinkedList() {
+		Partition<Integer> p = Partition.view(new LinkedList<>(Arrays.asList(0, 1, 2)), 2);
+		assertEquals(p.get(0), Arrays.asList(0, 1));
+		assertEquals(p.get(1), Arrays.asList(2));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidChunkSize() {
+		Partition.view(Arrays.asList(1, 2), 0);
+	}
+
+	@Test
+	public void testChunkedStream() {
+		AtomicBoolean closed = new AtomicBoolean();
+		List<List<Integer>> chunks;
+		try (Stream<List<Integer>> s = Partition.chunked(IntStream.range(0, 7).boxed().onClose(() -> closed.set(true)), 3)) {
+			chunks = s.collect(Collectors.toList());
+		}
+		assertEquals(chunks, Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Arrays.asList(6)));
+		assertTrue(closed.get());
+		assertEquals(Partition.chunked(Collections.<Integer>emptyList(), 3).count(), 0);
+	}
+
+	@Test
+	public void testChunkedReusesBuffer() {
+		Set<List<Integer>> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<Integer> sums = Partition.chunked(Arrays.asList(1, 2, 3, 4, 5), 2, true)
+						.peek(instances::add)
+						.map(c -> c.stream().mapToInt(Integer::intValue).sum())
+						.collect(Collectors.toList());
+		assertEquals(sums, Arrays.asList(3, 7, 5));
+		assertEquals(instances.size(), 1);
+	}
+
+	@Test
+	public void testParallelMapKeepsOrder() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Integer> source = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+			AtomicInteger inFlight = new AtomicInteger();
+			AtomicInteger maxInFlight = new AtomicInteger();
+			List<Integer> sums = Partition.view(source, 10).parallelMap(executor, 3, chunk -> {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				int sum = chunk.stream().mapToInt(Integer::intValue).sum();
+				inFlight.decrementAndGet();
+				return sum;
+			});
+			assertEquals(sums.size(), 100);
+			for (int i = 0; i < 100; ++i) {
+				assertEquals(sums.get(i).intValue(), 100 * i + 45);
+			}
+			assertTrue(maxInFlight.get() <= 3);
+
+			List<Integer> unordered = Partition.view(source, 10).parallelMap(executor, 3, List::size, false);
+			assertEquals(unordered.size(), 100);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelForEachPropagatesFailure() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			AtomicInteger processed = new AtomicInteger();
+			Partition.of(IntStream.range(0, 100).boxed().collect(Collectors.toList()), 1).parallelForEach(executor, 2, chunk -> {
+				if (chunk.get(0) == 5) {
+					throw new IllegalStateException("chunk 5");
+				}
+				processed.incrementAndGet();
+			});
+			fail("no throw");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSpliteratorSplitsOnChunks() {
+		Partition<Integer> p = Partition.view(IntStream.range(0, 50).boxed().collect(Collectors.toList()), 10);
+		Spliterator<List<Integer>> right = p.spliterator();
+		assertTrue(right.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+		assertEquals(right.getExactSizeIfKnown(), 5);
+		Spliterator<List<Integer>> left = right.trySplit();
+		assertEquals(left.getExactSizeIfKnown(), 2);
+		assertEquals(right.getExactSizeIfKnown(), 3);
+		List<List<Integer>> leftChunks = new ArrayList<>();
+		left.forEachRemaining(leftChunks::add);
+		assertEquals(leftChunks.get(1).get(0), Integer.valueOf(10));
+		assertEquals(p.parallelStream().mapToInt(List::size).sum(), 50);
+		assertEquals(p.parallelStream().map(c -> c.get(0)).collect(Collectors.toList()), Arrays.asList(0, 10, 20, 30, 40));
+	}
+
+	@Test
+	public void testByWeight() {
+		List<String> source = Arrays.asList("aaaa", "bb", "cc", "dddddddd", "e", "ffffff", "g");
+		Partition<String> p = Partition.byWeight(source, String::length, 6);
+		assertEquals(p.size(), 6);
+		assertEquals(p.get(0), Arrays.asList("aaaa", "bb"));
+		assertEquals(p.get(1), Arrays.asList("cc"));
+		assertEquals(p.get(2), Arrays.asList("dddddddd"));
+		assertEquals(p.get(3), Arrays.asList("e"));
+		assertEquals(p.get(4), Arrays.asList("ffffff"));
+		assertEquals(p.get(5), Arrays.asList("g"));
+		assertEquals(p.snapshot(), p);
+		assertEquals(Partition.chunkedByWeight(source.stream(), String::length, 6).collect(Collectors.toList()), p);
+		assertEquals(Partition.byWeight(Collections.<String>emptyList(), String::length, 6).size(), 0);
+
+		List<String> withEmpty = Arrays.asList("aaa", "", "b", "");
+		Partition<String> q = Partition.byWeight(withEmpty, String::length, 3);
+		assertEquals(q, Arrays.asList(Arrays.asList("aaa", ""), Arrays.asList("b", "")));
+		assertEquals(Partition.chunkedByWeight(withEmpty.stream(), String::length, 3).collect(Collectors.toList()), q);
+	}
+
+	@Test
+	public void testByKey() {
+		List<String> source = Arrays.asList("apple", "banana", "avocado", "cherry", "blueberry", "apricot");
+		Partition<String> p = Partition.byKey(source, w -> w.charAt(0), 4);
+		assertEquals(p.size(), 4);
+		assertEquals(p.stream().mapToInt(List::size).sum(), source.size());
+		for (String word : source) {
+			List<String> shard = p.get(Partition.shardOf(word.charAt(0), 4));
+			assertTrue(shard.contains(word));
+		}
+		assertEquals(p.get(Partition.shardOf('a', 4)).subList(0, 3), Arrays.asList("apple", "avocado", "apricot"));
+		assertEquals(Partition.byKey(Collections.<String>emptyList(), w -> w, 3).size(), 3);
+	}
+
+	@Test
+	public void testIntoParts() {
+		Partition<Integer> p = Partition.intoParts(IntStream.range(0, 10).boxed().collect(Collectors.toList()), 4);
+		assertEquals(p.size(), 4);
+		assertEquals(p.get(0), Arrays.asList(0, 1, 2));
+		assertEquals(p.get(1), Arrays.asList(3, 4, 5));
+		assertEquals(p.get(2), Arrays.asList(6, 7));
+		assertEquals(p.get(3), Arrays.asList(8, 9));
+
+		Partition<Integer> small = Partition.intoParts(Arrays.asList(1, 2), 3);
+		assertEquals(small.size(), 3);
+		assertEquals(small.get(2), Collections.emptyList());
+
+		assertEquals(Partition.intoParts(Arrays.asList(1, 2, 3)).size(), Runtime.getRuntime().availableProcessors());
+	}
 }
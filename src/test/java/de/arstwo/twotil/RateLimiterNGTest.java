@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class RateLimiterNGTest {
+
+	@Test
+	public void testBurstAndRefill() throws Exception {
+		RateLimiter limiter = RateLimiter.of(3, 600, ChronoUnit.MILLIS);
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire(2));
+		assertFalse(limiter.tryAcquire());
+		Thread.sleep(250);
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+	}
+
+	@Test
+	public void testExecuteIfPermitted() {
+		RateLimiter limiter = RateLimiter.of(2, 1, ChronoUnit.MINUTES);
+		AtomicInteger counter = new AtomicInteger();
+		assertTrue(limiter.executeIfPermitted(counter::incrementAndGet));
+		assertTrue(limiter.executeIfPermitted(counter::incrementAndGet));
+		assertFalse(limiter.executeIfPermitted(counter::incrementAndGet));
+		assertEquals(counter.get(), 2);
+	}
+
+	@Test
+	public void testAcquireWaits() throws Exception {
+		RateLimiter limiter = RateLimiter.of(10, 1, 1, ChronoUnit.SECONDS);
+		long start = System.nanoTime();
+		for (int i = 0; i < 4; ++i) {
+			limiter.acquire();
+		}
+		assertTrue(System.nanoTime() - start >= 250_000_000L);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testPermitsAboveBurst() {
+		RateLimiter.of(10, 2, 1, ChronoUnit.SECONDS).tryAcquire(3);
+	}
+}
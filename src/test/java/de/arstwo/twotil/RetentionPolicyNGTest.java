@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+public class RetentionPolicyNGTest {
+
+	private static final Instant NOW = Instant.parse("2020-01-10T00:00:00Z");
+	private final ForkJoinPool pool = new ForkJoinPool(2);
+
+	@AfterClass
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Creates files named 0..count-1 where file i is i days old and i*100+100 bytes large.
+	 */
+	static Path createFiles(int count) throws Exception {
+		Path dir = Files.createTempDirectory("retention");
+		for (int i = 0; i < count; ++i) {
+			Path file = Files.write(dir.resolve(Integer.toString(i)), new byte[i * 100 + 100]);
+			Files.setLastModifiedTime(file, FileTime.from(NOW.minus(i, ChronoUnit.DAYS)));
+		}
+		return dir;
+	}
+
+	Set<String> cleanUp(RetentionPolicy policy) throws Exception {
+		Path dir = createFiles(5);
+		FileUtil.deleteRecursively(dir, policy, pool);
+		Set<String> result;
+		try (Stream<Path> files = Files.list(dir)) {
+			result = files.map(p -> p.getFileName().toString()).collect(Collectors.toSet());
+		}
+		FileUtil.deleteRecursively(dir, pool);
+		return result;
+	}
+
+	static Set<String> names(String... names) {
+		return new HashSet<>(Arrays.asList(names));
+	}
+
+	@Test
+	public void testRules() throws Exception {
+		Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+		assertEquals(cleanUp(RetentionPolicy.none()), names());
+		assertEquals(cleanUp(RetentionPolicy.none().keepNewest(2)), names("0", "1"));
+		assertEquals(cleanUp(RetentionPolicy.none().keepNewerThan(36, ChronoUnit.HOURS, clock)), names("0", "1"));
+		assertEquals(cleanUp(RetentionPolicy.none().keepNewerThan(36, ChronoUnit.HOURS, clock).keepNewest(3)), names("0", "1", "2"));
+		assertEquals(cleanUp(RetentionPolicy.none().keepAtMostBytes(600)), names("0", "1", "2"));
+		assertEquals(cleanUp(RetentionPolicy.none().keepAtMostBytes(100).keepNewest(2)), names("0", "1"));
+		assertEquals(cleanUp(RetentionPolicy.none().keepNewerThan(30, ChronoUnit.DAYS, clock).keepAtMostBytes(300)), names("0", "1"));
+	}
+
+	@Test
+	public void testSummary() throws Exception {
+		Path dir = createFiles(3);
+		Path sub = Files.createDirectories(dir.resolve("sub"));
+		Files.write(sub.resolve("kept"), new byte[10]);
+		Files.setLastModifiedTime(sub.resolve("kept"), FileTime.from(NOW.minus(7, ChronoUnit.DAYS)));
+		Path emptied = Files.createDirectories(dir.resolve("emptied/deeper"));
+		Files.write(emptied.resolve("old"), new byte[50]);
+		Files.setLastModifiedTime(emptied.resolve("old"), FileTime.from(NOW.minus(7, ChronoUnit.DAYS)));
+
+		DeletionSummary summary = FileUtil.deleteRecursively(dir, RetentionPolicy.none().keepNewest(1), pool);
+		assertEquals(summary.getDeleted(), 2);
+		assertEquals(summary.getFailed(), 0);
+		assertEquals(summary.getBytesFreed(), 500);
+		assertTrue(Files.exists(dir.resolve("0")));
+		assertTrue(Files.exists(sub.resolve("kept")));
+		assertTrue(Files.exists(emptied.resolve("old")));
+
+		summary = FileUtil.deleteRecursively(dir, RetentionPolicy.none().keepNewerThan(1, ChronoUnit.DAYS, Clock.fixed(NOW, ZoneOffset.UTC)), pool);
+		assertEquals(summary.getDeleted(), 5);
+		assertEquals(summary.getBytesFreed(), 60);
+		assertFalse(Files.exists(dir.resolve("emptied")));
+		assertFalse(Files.exists(sub));
+		assertTrue(Files.exists(dir.resolve("0")));
+		FileUtil.deleteRecursively(dir, pool);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidAmount() {
+		RetentionPolicy.none().keepNewest(-1);
+	}
+}
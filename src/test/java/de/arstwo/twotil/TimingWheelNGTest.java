@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class TimingWheelNGTest {
+
+	@Test
+	public void testPeriodicExecution() throws Exception {
+		try (TimingWheel wheel = TimingWheel.start(5, ChronoUnit.MILLIS)) {
+			AtomicInteger counter = new AtomicInteger();
+			wheel.schedule(counter::incrementAndGet, 100, ChronoUnit.MILLIS);
+			Thread.sleep(50);
+			assertEquals(counter.get(), 1);
+			Thread.sleep(200);
+			assertTrue(counter.get() >= 2 && counter.get() <= 4, "executions: " + counter.get());
+		}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		try (TimingWheel wheel = TimingWheel.start(5, ChronoUnit.MILLIS, 4, Thread::new)) {
+			AtomicInteger counter = new AtomicInteger();
+			TimingWheel.Task task = wheel.schedule(counter::incrementAndGet, 30, ChronoUnit.MILLIS);
+			Thread.sleep(50);
+			assertTrue(task.cancel());
+			assertFalse(task.cancel());
+			assertTrue(task.isCancelled());
+			int executions = counter.get();
+			assertTrue(executions >= 1);
+			Thread.sleep(100);
+			assertEquals(counter.get(), executions);
+		}
+	}
+
+	@Test
+	public void testManyTasksOnlyDueOnesRun() throws Exception {
+		try (TimingWheel wheel = TimingWheel.start(1, ChronoUnit.MILLIS, 8, Thread::new)) {
+			AtomicInteger counter = new AtomicInteger();
+			for (int i = 0; i < 10_000; ++i) {
+				wheel.schedule(counter::incrementAndGet, 1, ChronoUnit.HOURS);
+			}
+			Thread.sleep(100);
+			assertEquals(counter.get(), 10_000);
+		}
+	}
+
+	@Test
+	public void testFailingTaskIsCancelled() throws Exception {
+		AtomicInteger counter = new AtomicInteger();
+		try (TimingWheel wheel = TimingWheel.start(1, ChronoUnit.MILLIS, 8, r -> {
+			Thread t = new Thread(r);
+			t.setUncaughtExceptionHandler((thread, e) -> counter.addAndGet(100));
+			return t;
+		})) {
+			TimingWheel.Task task = wheel.schedule(() -> {
+				counter.incrementAndGet();
+				throw new IllegalStateException();
+			}, 10, ChronoUnit.MILLIS);
+			Thread.sleep(100);
+			assertTrue(task.isCancelled());
+			assertEquals(counter.get(), 101);
+		}
+	}
+
+	@Test
+	public void testErrorDoesNotStopDriver() throws Exception {
+		AtomicInteger failures = new AtomicInteger();
+		AtomicInteger runs = new AtomicInteger();
+		try (TimingWheel wheel = TimingWheel.start(1, ChronoUnit.MILLIS, 8, r -> {
+			Thread t = new Thread(r);
+			t.setUncaughtExceptionHandler((thread, e) -> failures.incrementAndGet());
+			return t;
+		})) {
+			TimingWheel.Task failing = wheel.schedule(() -> {
+				throw new AssertionError();
+			}, 5, ChronoUnit.MILLIS);
+			wheel.schedule(runs::incrementAndGet, 5, ChronoUnit.MILLIS);
+			Thread.sleep(100);
+			assertTrue(failing.isCancelled());
+			assertEquals(failures.get(), 1);
+			int before = runs.get();
+			Thread.sleep(50);
+			assertTrue(runs.get() > before);
+			wheel.schedule(() -> {
+			}, 5, ChronoUnit.MILLIS);
+		}
+	}
+}
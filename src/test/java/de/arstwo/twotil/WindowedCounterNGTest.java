@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Stefan Feldbinder <sfeldbin@googlemail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.arstwo.twotil;
+
+import java.time.temporal.ChronoUnit;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+public class WindowedCounterNGTest {
+
+	@Test
+	public void testEventsExpire() throws Exception {
+		WindowedCounter counter = WindowedCounter.of(200, ChronoUnit.MILLIS, 4);
+		assertEquals(counter.sum(), 0);
+		counter.increment();
+		counter.add(4);
+		assertEquals(counter.sum(), 5);
+		Thread.sleep(300);
+		assertEquals(counter.sum(), 0);
+		counter.increment();
+		assertEquals(counter.sum(), 1);
+	}
+
+	@Test
+	public void testStaleSlotDoesNotReset() {
+		WindowedCounter counter = WindowedCounter.of(1, ChronoUnit.HOURS, 4);
+		long slot = counter.currentSlot();
+		counter.add(5, slot);
+		counter.add(3, slot - 4);
+		assertEquals(counter.sum(), 8);
+		assertEquals(counter.slotIDs.get((int) Math.floorMod(slot, 4L)), slot);
+	}
+
+	@Test
+	public void testConcurrentIncrements() throws Exception {
+		WindowedCounter counter = WindowedCounter.of(1, ChronoUnit.HOURS);
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; ++i) {
+			threads[i] = new Thread(() -> {
+				for (int j = 0; j < 10_000; ++j) {
+					counter.increment();
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(counter.sum(), 40_000);
+		assertEquals(counter.rate(ChronoUnit.HOURS), 40_000.0, 0.001);
+	}
+}